@@ -22,15 +22,19 @@ import com.intellij.vim.annotations.CommandOrMotion
 class CommandOrMotionProcessor(private val environment: SymbolProcessorEnvironment) : SymbolProcessor {
   private val visitor = CommandOrMotionVisitor()
   private val commands = mutableListOf<CommandBean>()
-  private val fileWriter = JsonFileWriter(environment)
+  private val fileWriter = RegistryFileWriter(environment)
 
   override fun process(resolver: Resolver): List<KSAnnotated> {
     val commandsFile = environment.options["commands_file"] ?: return emptyList()
 
     resolver.getAllFiles().forEach { it.accept(visitor, Unit) }
 
+    // One line per class: the class name, its modes and all of its key sequences
     val sortedCommands = commands.sortedWith(compareBy({ it.keys }, { it.`class` }))
-    fileWriter.write(commandsFile, sortedCommands)
+    val entries = sortedCommands.groupBy { it.`class` }.map { (className, beans) ->
+      listOf(className, beans.first().modes) + beans.map { it.keys }
+    }
+    fileWriter.write(commandsFile, entries)
 
     return emptyList()
   }
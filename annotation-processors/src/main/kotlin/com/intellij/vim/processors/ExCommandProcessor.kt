@@ -22,15 +22,15 @@ import com.intellij.vim.annotations.ExCommand
 class ExCommandProcessor(private val environment: SymbolProcessorEnvironment) : SymbolProcessor {
   private val visitor = EXCommandVisitor()
   private val commandToClass = mutableMapOf<String, String>()
-  private val fileWriter = JsonFileWriter(environment)
+  private val fileWriter = RegistryFileWriter(environment)
 
   override fun process(resolver: Resolver): List<KSAnnotated> {
     val exCommandsFile = environment.options["ex_commands_file"] ?: return emptyList()
 
     resolver.getAllFiles().forEach { it.accept(visitor, Unit) }
 
-    val sortedCommandToClass = commandToClass.toList().sortedWith(compareBy({ it.first }, { it.second })).toMap()
-    fileWriter.write(exCommandsFile, sortedCommandToClass)
+    val sortedCommandToClass = commandToClass.toList().sortedWith(compareBy({ it.first }, { it.second }))
+    fileWriter.write(exCommandsFile, sortedCommandToClass.map { listOf(it.first, it.second) })
 
     return emptyList()
   }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.intellij.vim.processors
+
+import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
+import java.nio.file.Files
+import kotlin.io.path.Path
+import kotlin.io.path.writeText
+
+/**
+ * Writes a registry of commands or functions, with one entry per line and tab-separated fields
+ *
+ * The registries are read during startup, so they use a format that can be read without a JSON parser. See
+ * `com.maddyhome.idea.vim.helper.readRegistryFile` in the engine.
+ */
+internal class RegistryFileWriter(private val environment: SymbolProcessorEnvironment) {
+  fun write(fileName: String, entries: List<List<String>>) {
+    val generatedDirPath = Path(environment.options["generated_directory"]!!)
+    Files.createDirectories(generatedDirPath)
+
+    val fileContent = buildString {
+      for (fields in entries) {
+        fields.forEach { field ->
+          require('\t' !in field && '\n' !in field) { "Registry field contains a tab or new line: $field" }
+        }
+        fields.joinTo(this, separator = "\t")
+        append('\n')
+      }
+    }
+    generatedDirPath.resolve(fileName).writeText(fileContent)
+  }
+}
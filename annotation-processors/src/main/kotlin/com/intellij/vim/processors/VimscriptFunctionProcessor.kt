@@ -22,15 +22,15 @@ import com.intellij.vim.annotations.VimscriptFunction
 class VimscriptFunctionProcessor(private val environment: SymbolProcessorEnvironment) : SymbolProcessor {
   private val visitor = VimscriptFunctionVisitor()
   private val nameToClass = mutableMapOf<String, String>()
-  private val fileWriter = JsonFileWriter(environment)
+  private val fileWriter = RegistryFileWriter(environment)
 
   override fun process(resolver: Resolver): List<KSAnnotated> {
     val vimscriptFunctionsFile = environment.options["vimscript_functions_file"] ?: return emptyList()
 
     resolver.getAllFiles().forEach { it.accept(visitor, Unit) }
 
-    val sortedNameToClass = nameToClass.toList().sortedWith(compareBy({ it.first }, { it.second })).toMap()
-    fileWriter.write(vimscriptFunctionsFile, sortedNameToClass)
+    val sortedNameToClass = nameToClass.toList().sortedWith(compareBy({ it.first }, { it.second }))
+    fileWriter.write(vimscriptFunctionsFile, sortedNameToClass.map { listOf(it.first, it.second) })
 
     return emptyList()
   }
@@ -547,9 +547,9 @@ intellijPlatform {
 
 ksp {
   arg("generated_directory", "$projectDir/src/main/resources/ksp-generated")
-  arg("commands_file", "frontend_commands.json")
-  arg("ex_commands_file", "frontend_ex_commands.json")
-  arg("vimscript_functions_file", "frontend_vimscript_functions.json")
+  arg("commands_file", "frontend_commands.txt")
+  arg("ex_commands_file", "frontend_ex_commands.txt")
+  arg("vimscript_functions_file", "frontend_vimscript_functions.txt")
   arg("extensions_file", "ideavim_extensions.json")
 }
 
@@ -77,9 +77,9 @@ kotlin {
 
 ksp {
   arg("generated_directory", "$projectDir/src/main/resources/ksp-generated")
-  arg("vimscript_functions_file", "intellij_vimscript_functions.json")
-  arg("ex_commands_file", "intellij_ex_commands.json")
-  arg("commands_file", "intellij_commands.json")
+  arg("vimscript_functions_file", "intellij_vimscript_functions.txt")
+  arg("ex_commands_file", "intellij_ex_commands.txt")
+  arg("commands_file", "intellij_commands.txt")
   arg("extensions_file", "ideavim_extensions.json")
 }
 
@@ -19,6 +19,7 @@ import com.intellij.util.SlowOperations
 import com.maddyhome.idea.vim.action.FrontendCommandProvider
 import com.maddyhome.idea.vim.api.VimPluginActivator
 import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.diagnostic.StartupTimeRecorder
 import com.maddyhome.idea.vim.extension.VimExtensionRegistrar
 import com.maddyhome.idea.vim.helper.MacKeyRepeat
 import com.maddyhome.idea.vim.listener.VimListenerManager
@@ -60,42 +61,54 @@ internal class IjVimPluginActivator : VimPluginActivator {
    *    (VimListenerManager accesses `number` option and guicaret)
    */
   override fun activate() {
+    StartupTimeRecorder.recordStartup("plugin activation") { doActivate() }
+  }
+
+  private fun doActivate() {
     // 1) Update state
     ApplicationManager.getApplication().invokeLater(this::updateState)
 
     // 2) Command registration
     // 2.1) Register vim actions in command mode
-    RegisterActions.registerCommandProvider(FrontendCommandProvider)
-    RegisterActions.registerActions()
+    StartupTimeRecorder.measure("register commands") {
+      RegisterActions.registerCommandProvider(FrontendCommandProvider)
+      RegisterActions.registerActions()
+    }
 
     // 2.2) Register ex commands
     VimscriptParser.registerCommandProvider(IntellijExCommandProvider)
 
     // 2.3) Register extensions
-    (injector.extensionRegistrator as VimExtensionRegistrar).registerExtensions()
+    StartupTimeRecorder.measure("register extensions") {
+      (injector.extensionRegistrator as VimExtensionRegistrar).registerExtensions()
+    }
 
     // 2.4) Register functions
-    (injector.functionService as FunctionStorage).registerFunctionProvider(IntellijFunctionProvider)
-    injector.functionService.registerHandlers()
+    StartupTimeRecorder.measure("register functions") {
+      (injector.functionService as FunctionStorage).registerFunctionProvider(IntellijFunctionProvider)
+      injector.functionService.registerHandlers()
+    }
 
     // 3) Option initialisation
-    injector.optionGroup.initialiseOptions()
+    StartupTimeRecorder.measure("initialise options") { injector.optionGroup.initialiseOptions() }
 
     // 4) ~/.ideavimrc execution
     // Evaluate in the context of the fallback window, to capture local option state, to copy to the first editor window
     try {
       SlowOperations.knownIssue("VIM-3661").use {
-        registerIdeavimrc()
+        StartupTimeRecorder.measure("execute ~/.ideavimrc") { registerIdeavimrc() }
       }
     } catch (e: Exception) {
       log.error("Failed to register ideavimrc", e)
     }
 
     // 5) Turning on should be performed after all commands registration
-    VimPlugin.getSearch().turnOn()
+    StartupTimeRecorder.measure("turn on search and listeners") {
+      VimPlugin.getSearch().turnOn()
 
-    // TODO: Consider moving this before evaluating ideavimrc, so we can react to users changing settings
-    VimListenerManager.turnOn()
+      // TODO: Consider moving this before evaluating ideavimrc, so we can react to users changing settings
+      VimListenerManager.turnOn()
+    }
   }
 
   override fun deactivate(unsubscribe: Boolean) {
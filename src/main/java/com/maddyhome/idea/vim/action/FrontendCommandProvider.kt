@@ -9,5 +9,5 @@
 package com.maddyhome.idea.vim.action
 
 object FrontendCommandProvider : CommandProvider {
-  override val commandListFileName: String = "frontend_commands.json"
+  override val commandListFileName: String = "frontend_commands.txt"
 }
@@ -16,7 +16,6 @@ import com.maddyhome.idea.vim.api.VimEditor
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.command.Command
 import com.maddyhome.idea.vim.command.OperatorArguments
-import com.maddyhome.idea.vim.group.withVimUndoGroup
 import com.maddyhome.idea.vim.handler.VimActionHandler
 import com.maddyhome.idea.vim.newapi.ij
 
@@ -31,7 +30,7 @@ internal class RepeatChangeAction : VimActionHandler.SingleExecution() {
     operatorArguments: OperatorArguments,
   ): Boolean {
     val state = injector.vimState
-    var lastCommand = VimRepeater.lastChangeCommand
+    val lastCommand = VimRepeater.lastChangeCommand
 
     if (lastCommand == null && Extension.lastExtensionHandler == null) return false
 
@@ -50,7 +49,7 @@ internal class RepeatChangeAction : VimActionHandler.SingleExecution() {
     // `u`. Without this the backend records each atomic edit (delete, insert,
     // caret) as a separate undo entry because speculative undo disables the
     // platform's command grouping.
-    withVimUndoGroup(editor, "Vim Dot Repeat") {
+    injector.undo.undoTransaction(editor, "Vim Dot Repeat") {
       // A fancy 'redo-register' feature
       // VIM-2643, :h redo-register
       if (VimRepeater.lastChangeRegister in '1'..'8') {
@@ -68,15 +67,13 @@ internal class RepeatChangeAction : VimActionHandler.SingleExecution() {
           null,
         )
       } else if (!repeatHandler && lastCommand != null) {
-        if (cmd.rawCount > 0) {
-          lastCommand = lastCommand.copy(rawCount = cmd.rawCount)
-        }
-        state.executingCommand = lastCommand
+        val repeatedCommand = if (cmd.rawCount > 0) lastCommand.copy(rawCount = cmd.rawCount) else lastCommand
+        state.executingCommand = repeatedCommand
 
-        val arguments = operatorArguments.copy(count0 = lastCommand.rawCount)
-        injector.actionExecutor.executeVimAction(editor, lastCommand.action, context, arguments)
+        val arguments = operatorArguments.copy(count0 = repeatedCommand.rawCount)
+        injector.actionExecutor.executeVimAction(editor, repeatedCommand.action, context, arguments)
 
-        VimRepeater.saveLastChange(lastCommand)
+        VimRepeater.saveLastChange(repeatedCommand)
       }
     }
 
@@ -16,6 +16,7 @@ import com.maddyhome.idea.vim.api.VimExtensionRegistrator
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.api.setToggleOption
 import com.maddyhome.idea.vim.common.ListenerOwner
+import com.maddyhome.idea.vim.diagnostic.StartupTimeRecorder
 import com.maddyhome.idea.vim.key.MappingOwner
 import com.maddyhome.idea.vim.key.MappingOwner.Plugin.Companion.remove
 import com.maddyhome.idea.vim.options.OptionAccessScope
@@ -107,8 +108,10 @@ class VimExtensionRegistrar : VimExtensionRegistrator {
     delayedExtensionEnabling.forEach {
       val name = it.name ?: it.instance.name
       try {
-        val initApi = createVimApi(name)
-        it.instance.init(initApi)
+        StartupTimeRecorder.measure("initialise extension $name") {
+          val initApi = createVimApi(name)
+          it.instance.init(initApi)
+        }
         logger.info("IdeaVim extension '$name' initialized")
       } catch (e: Throwable) {
         logger.error("Failed to initialize IdeaVim extension '$name'", e)
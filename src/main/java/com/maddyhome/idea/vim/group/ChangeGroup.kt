@@ -139,7 +139,7 @@ class ChangeGroup : VimChangeGroupBase() {
           blockInsertActive = false
         }
       }
-      count > 1 -> withVimUndoGroup(editor, "Vim Repeat") {
+      count > 1 -> injector.undo.undoTransaction(editor, "Vim Repeat") {
         super.repeatInsert(editor, context, count, started)
       }
       else -> super.repeatInsert(editor, context, count, started)
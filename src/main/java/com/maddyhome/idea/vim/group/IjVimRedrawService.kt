@@ -8,6 +8,7 @@
 
 package com.maddyhome.idea.vim.group
 
+import com.intellij.openapi.editor.Document
 import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.editor.event.DocumentListener
 import com.intellij.openapi.fileEditor.FileEditorManagerEvent
@@ -41,9 +42,23 @@ class IjVimRedrawService : VimRedrawService {
    * Simulate Vim's redraw when the document changes, or when the mode changes
    */
   internal object RedrawListener : DocumentListener, ModeChangeListener {
+    private var isRedrawDeferred = false
+
     override fun documentChanged(event: DocumentEvent) {
       if (VimPlugin.isNotEnabled()) return
       if (event.newFragment.contains("\n") || event.oldFragment.contains("\n")) {
+        // A bulk update can make many changes, but we only need to redraw once it's finished
+        if (event.document.isInBulkUpdate) {
+          isRedrawDeferred = true
+        } else {
+          injector.redrawService.redraw()
+        }
+      }
+    }
+
+    override fun bulkUpdateFinished(document: Document) {
+      if (isRedrawDeferred) {
+        isRedrawDeferred = false
         injector.redrawService.redraw()
       }
     }
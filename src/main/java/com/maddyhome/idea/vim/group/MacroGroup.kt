@@ -14,14 +14,15 @@ import com.intellij.openapi.fileEditor.FileEditorManager
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.progress.util.PotemkinProgress
 import com.maddyhome.idea.vim.KeyHandler.Companion.getInstance
+import com.maddyhome.idea.vim.VimPlugin
 import com.maddyhome.idea.vim.api.ExecutionContext
 import com.maddyhome.idea.vim.api.VimEditor
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.helper.MessageHelper
-import com.maddyhome.idea.vim.key.KeySource
 import com.maddyhome.idea.vim.macro.VimMacroBase
 import com.maddyhome.idea.vim.newapi.ij
 import com.maddyhome.idea.vim.newapi.vim
+import com.maddyhome.idea.vim.ui.widgets.mode.repaintModeWidget
 
 /**
  * Used to handle playback of macros
@@ -71,6 +72,7 @@ class MacroGroup : VimMacroBase() {
               myPotemkinProgress.fraction = (i + 1).toDouble() / total
               while (keyStack.hasStroke()) {
                 val key = keyStack.feedStroke()
+                countPlaybackKey()
                 myPotemkinProgress.checkCanceled()
                 val keyHandler = getInstance()
                 val nowSelected = fileEditorManager.selectedTextEditor
@@ -86,7 +88,7 @@ class MacroGroup : VimMacroBase() {
                   keyHandler.handleKey(
                     currentEditor,
                     key,
-                    KeySource.MACRO_PLAYBACK,
+                    getPlaybackKeySource(),
                     context,
                     keyHandler.keyHandlerState
                   )
@@ -112,6 +114,12 @@ class MacroGroup : VimMacroBase() {
     }
   }
 
+  override fun onPlaybackFinished(editor: VimEditor) {
+    super.onPlaybackFinished(editor)
+    VimPlugin.getSearchIfCreated()?.updateDeferredSearchHighlights()
+    repaintModeWidget()
+  }
+
   companion object {
     private val logger = logger<MacroGroup>()
   }
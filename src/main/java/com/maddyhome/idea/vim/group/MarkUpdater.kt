@@ -10,13 +10,11 @@ package com.maddyhome.idea.vim.group
 
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.diagnostic.debug
-import com.intellij.openapi.editor.Document
-import com.intellij.openapi.editor.EditorFactory
 import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.editor.event.DocumentListener
 import com.maddyhome.idea.vim.VimPlugin
 import com.maddyhome.idea.vim.api.injector
-import com.maddyhome.idea.vim.newapi.IjVimEditor
+import com.maddyhome.idea.vim.listener.DocumentChangeContext
 
 /**
  * Listens to editor document changes and updates marks accordingly.
@@ -38,11 +36,14 @@ object MarkUpdater : DocumentListener {
    * @param event The change event
    */
   override fun beforeDocumentChange(event: DocumentEvent) {
+    beforeDocumentChange(event, DocumentChangeContext(event.document))
+  }
+
+  internal fun beforeDocumentChange(event: DocumentEvent, change: DocumentChangeContext) {
     if (VimPlugin.isNotEnabled()) return
     logger.debug { "MarkUpdater before, event = $event" }
     if (event.oldLength == 0) return
-    val doc = event.document
-    val anEditor = getAnyEditorForDocument(doc) ?: return
+    val anEditor = change.anyEditor ?: return
     injector.markService.updateMarksFromDelete(anEditor, event.offset, event.oldLength, event.newLength)
   }
 
@@ -57,21 +58,14 @@ object MarkUpdater : DocumentListener {
    * @param event The change event
    */
   override fun documentChanged(event: DocumentEvent) {
+    documentChanged(event, DocumentChangeContext(event.document))
+  }
+
+  internal fun documentChanged(event: DocumentEvent, change: DocumentChangeContext) {
     if (VimPlugin.isNotEnabled()) return
     logger.debug { "MarkUpdater after, event = $event" }
     if (event.newLength == 0 || event.newLength == 1 && event.newFragment[0] != '\n') return
-    val doc = event.document
-    val anEditor = getAnyEditorForDocument(doc) ?: return
+    val anEditor = change.anyEditor ?: return
     injector.markService.updateMarksFromInsert(anEditor, event.offset, event.newLength)
   }
-
-  /**
-   * Get any editor for the given document
-   *
-   * We need an editor to help calculate offsets for marks, and it doesn't matter which one we use, because they would
-   * all return the same results. However, we cannot use [com.maddyhome.idea.vim.api.VimEditorGroup.getEditors] because
-   * the change might have come from a remote guest and there might not be an open local editor.
-   */
-  private fun getAnyEditorForDocument(doc: Document) =
-    EditorFactory.getInstance().getEditors(doc).firstOrNull()?.let { IjVimEditor(it) }
 }
@@ -15,6 +15,7 @@ import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.diagnostic.Logger;
 import com.maddyhome.idea.vim.newapi.IjVimInjectorKt;
 import com.maddyhome.idea.vim.register.Register;
+import com.maddyhome.idea.vim.register.RegisterStore;
 import com.maddyhome.idea.vim.register.VimRegisterGroupBase;
 import com.maddyhome.idea.vim.state.mode.SelectionType;
 import org.jdom.Element;
@@ -24,7 +25,10 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static com.maddyhome.idea.vim.api.VimInjectorKt.injector;
 
@@ -38,6 +42,34 @@ public class RegisterGroup extends VimRegisterGroupBase
 
   private static final Logger logger = Logger.getInstance(RegisterGroup.class);
 
+  /**
+   * Registers with more text than this aren't saved, so a huge yank doesn't slow down every save of the settings
+   */
+  private static final int MAX_SAVED_REGISTER_LENGTH = 1024 * 1024;
+
+  /**
+   * The element last saved for each register
+   * <p>
+   * Registers are immutable and replaced whenever they change, so if a register is still the same instance, its saved
+   * element is reused rather than encoding the text again.
+   */
+  private final Map<Character, SavedRegister> savedRegisters = new HashMap<>();
+
+  private record SavedRegister(@NotNull Register register, @NotNull Element element) {
+  }
+
+  /**
+   * Reads a saved register on first use. See {@link com.maddyhome.idea.vim.register.RegisterStore}
+   * <p>
+   * The element is only referenced by the store, so it's released once the register is read or set.
+   */
+  private record UnloadedRegister(char key, @NotNull Element element) implements RegisterStore.Loader {
+    @Override
+    public @Nullable Register load() {
+      return readRegister(key, element);
+    }
+  }
+
   static {
     IjVimInjectorKt.initInjector();
   }
@@ -49,44 +81,69 @@ public class RegisterGroup extends VimRegisterGroupBase
   public void saveData(final @NotNull Element element) {
     logger.debug("Save registers data");
     final Element registersElement = new Element("registers");
+    final Set<Character> names = myRegisters.getNames();
     if (logger.isTraceEnabled()) {
-      logger.trace("Saving " + myRegisters.size() + " registers");
+      logger.trace("Saving " + names.size() + " registers");
     }
-    for (Character key : myRegisters.keySet()) {
-      final Register register = myRegisters.get(key);
-      if (logger.isTraceEnabled()) {
-        logger.trace("Saving register '" + key + "'");
+    for (Character key : names) {
+      // A register that hasn't been used since it was loaded is saved exactly as it was read
+      if (myRegisters.getLoader(key) instanceof UnloadedRegister unloaded) {
+        registersElement.addContent(unloaded.element().clone());
+        continue;
       }
-      final Element registerElement = new Element("register");
-      registerElement.setAttribute("name", String.valueOf(key));
-      registerElement.setAttribute("type", register.getType().name());
-      final String text = register.getText();
-      if (text != null) {
-        logger.trace("Save register as 'text'");
-        final Element textElement = new Element("text");
-        XMLGroup.getInstance().setSafeXmlText(textElement, text);
-        registerElement.addContent(textElement);
+
+      final Register register = myRegisters.get(key);
+      if (register == null) continue;
+      if (register.getText().length() > MAX_SAVED_REGISTER_LENGTH) {
+        if (logger.isTraceEnabled()) {
+          logger.trace("Not saving register '" + key + "', its text is too long");
+        }
+        continue;
       }
-      else {
-        logger.trace("Save register as 'keys'");
-        final Element keys = new Element("keys");
-        final List<KeyStroke> list = register.getKeys();
-        for (KeyStroke stroke : list) {
-          final Element k = new Element("key");
-          k.setAttribute("char", Integer.toString(stroke.getKeyChar()));
-          k.setAttribute("code", Integer.toString(stroke.getKeyCode()));
-          k.setAttribute("mods", Integer.toString(stroke.getModifiers()));
-          keys.addContent(k);
+
+      SavedRegister saved = savedRegisters.get(key);
+      if (saved == null || saved.register() != register) {
+        if (logger.isTraceEnabled()) {
+          logger.trace("Saving register '" + key + "'");
         }
-        registerElement.addContent(keys);
+        saved = new SavedRegister(register, createRegisterElement(key, register));
+        savedRegisters.put(key, saved);
       }
-      registersElement.addContent(registerElement);
+      registersElement.addContent(saved.element().clone());
     }
+    savedRegisters.keySet().retainAll(names);
 
     element.addContent(registersElement);
     logger.debug("Finish saving registers data");
   }
 
+  private static @NotNull Element createRegisterElement(char key, @NotNull Register register) {
+    final Element registerElement = new Element("register");
+    registerElement.setAttribute("name", String.valueOf(key));
+    registerElement.setAttribute("type", register.getType().name());
+    final String text = register.getText();
+    if (text != null) {
+      logger.trace("Save register as 'text'");
+      final Element textElement = new Element("text");
+      XMLGroup.getInstance().setSafeXmlText(textElement, text);
+      registerElement.addContent(textElement);
+    }
+    else {
+      logger.trace("Save register as 'keys'");
+      final Element keys = new Element("keys");
+      final List<KeyStroke> list = register.getKeys();
+      for (KeyStroke stroke : list) {
+        final Element k = new Element("key");
+        k.setAttribute("char", Integer.toString(stroke.getKeyChar()));
+        k.setAttribute("code", Integer.toString(stroke.getKeyCode()));
+        k.setAttribute("mods", Integer.toString(stroke.getModifiers()));
+        keys.addContent(k);
+      }
+      registerElement.addContent(keys);
+    }
+    return registerElement;
+  }
+
   public void readData(final @NotNull Element element) {
     logger.debug("Read registers data");
     final Element registersElement = element.getChild("registers");
@@ -99,64 +156,70 @@ public class RegisterGroup extends VimRegisterGroupBase
       for (Element registerElement : registerElements) {
         final char key = registerElement.getAttributeValue("name").charAt(0);
         if (logger.isTraceEnabled()) {
-          logger.trace("Read register '" + key + "'");
+          logger.trace("Found register '" + key + "', it will be read on first use");
         }
-        final Register register;
-        final Element textElement = registerElement.getChild("text");
-        final String typeText = registerElement.getAttributeValue("type");
-        SelectionType type;
-        try {
-          type = SelectionType.valueOf(typeText);
-        }
-        catch (IllegalArgumentException e) {
-          // This whole `if` keeps compatibility with the mode when SelectionType had numbers
-          if (Integer.toString(1 << 1).equals(typeText)) {
-            type = SelectionType.CHARACTER_WISE;
-          }
-          else if (Integer.toString(1 << 2).equals(typeText)) {
-            type = SelectionType.LINE_WISE;
-          }
-          else if (Integer.toString(1 << 3).equals(typeText)) {
-            type = SelectionType.BLOCK_WISE;
-          }
-          else {
-            type = SelectionType.CHARACTER_WISE;
-          }
-        }
-        if (textElement != null) {
-          logger.trace("Register has 'text' element");
-          final String text = XMLGroup.getInstance().getSafeXmlText(textElement);
-          if (text != null) {
-            logger.trace("Register data parsed");
-            register = new Register(key, injector.getClipboardManager().dumbCopiedText(text), type);
-          }
-          else {
-            logger.trace("Cannot parse register data");
-            register = null;
-          }
-        }
-        else {
-          logger.trace("Register has 'keys' element");
-          final Element keysElement = registerElement.getChild("keys");
-          final List<Element> keyElements = keysElement.getChildren("key");
-          final List<KeyStroke> strokes = new ArrayList<>();
-          for (Element keyElement : keyElements) {
-            final int code = Integer.parseInt(keyElement.getAttributeValue("code"));
-            final int modifiers = Integer.parseInt(keyElement.getAttributeValue("mods"));
-            final char c = (char)Integer.parseInt(keyElement.getAttributeValue("char"));
-            //noinspection MagicConstant
-            strokes.add(
-              c == KeyEvent.CHAR_UNDEFINED ? KeyStroke.getKeyStroke(code, modifiers) : KeyStroke.getKeyStroke(c));
-          }
-          register = new Register(key, type, strokes);
-        }
-        logger.trace("Save register to vim registers");
-        myRegisters.put(key, register);
+        myRegisters.setLoader(key, new UnloadedRegister(key, registerElement));
       }
     }
     logger.debug("Finish reading registers data");
   }
 
+  private static @Nullable Register readRegister(char key, @NotNull Element registerElement) {
+    if (logger.isTraceEnabled()) {
+      logger.trace("Read register '" + key + "'");
+    }
+    final Register register;
+    final Element textElement = registerElement.getChild("text");
+    final String typeText = registerElement.getAttributeValue("type");
+    SelectionType type;
+    try {
+      type = SelectionType.valueOf(typeText);
+    }
+    catch (IllegalArgumentException e) {
+      // This whole `if` keeps compatibility with the mode when SelectionType had numbers
+      if (Integer.toString(1 << 1).equals(typeText)) {
+        type = SelectionType.CHARACTER_WISE;
+      }
+      else if (Integer.toString(1 << 2).equals(typeText)) {
+        type = SelectionType.LINE_WISE;
+      }
+      else if (Integer.toString(1 << 3).equals(typeText)) {
+        type = SelectionType.BLOCK_WISE;
+      }
+      else {
+        type = SelectionType.CHARACTER_WISE;
+      }
+    }
+    if (textElement != null) {
+      logger.trace("Register has 'text' element");
+      final String text = XMLGroup.getInstance().getSafeXmlText(textElement);
+      if (text != null) {
+        logger.trace("Register data parsed");
+        register = new Register(key, injector.getClipboardManager().dumbCopiedText(text), type);
+      }
+      else {
+        logger.trace("Cannot parse register data");
+        register = null;
+      }
+    }
+    else {
+      logger.trace("Register has 'keys' element");
+      final Element keysElement = registerElement.getChild("keys");
+      final List<Element> keyElements = keysElement.getChildren("key");
+      final List<KeyStroke> strokes = new ArrayList<>();
+      for (Element keyElement : keyElements) {
+        final int code = Integer.parseInt(keyElement.getAttributeValue("code"));
+        final int modifiers = Integer.parseInt(keyElement.getAttributeValue("mods"));
+        final char c = (char)Integer.parseInt(keyElement.getAttributeValue("char"));
+        //noinspection MagicConstant
+        strokes.add(
+          c == KeyEvent.CHAR_UNDEFINED ? KeyStroke.getKeyStroke(code, modifiers) : KeyStroke.getKeyStroke(c));
+      }
+      register = new Register(key, type, strokes);
+    }
+    return register;
+  }
+
   @Nullable
   @Override
   public Element getState() {
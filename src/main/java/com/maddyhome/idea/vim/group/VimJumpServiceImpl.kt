@@ -21,6 +21,7 @@ import com.maddyhome.idea.vim.api.VimWindowIdService
 import com.maddyhome.idea.vim.diagnostic.vimLogger
 import com.maddyhome.idea.vim.group.jump.JumpRemoteApi
 import com.maddyhome.idea.vim.mark.Jump
+import com.maddyhome.idea.vim.mark.JumpList
 import com.maddyhome.idea.vim.newapi.IjVimEditor
 import com.maddyhome.idea.vim.newapi.initInjector
 import kotlinx.coroutines.launch
@@ -113,7 +114,7 @@ internal class VimJumpServiceImpl : VimJumpServiceBase(), PersistentStateCompone
         logger.debug("jumps=$jumps")
       }
       val projectId = projectElement.getAttributeValue("id")
-      scopeToJumps[projectId] = jumps
+      scopeToJumps[projectId] = JumpList(jumps)
     }
   }
 }
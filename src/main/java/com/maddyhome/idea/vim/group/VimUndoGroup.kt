@@ -21,22 +21,16 @@ import com.maddyhome.idea.vim.newapi.IjVimEditor
  * without an explicit mark each atomic edit (insert, delete, caret move) lands
  * as its own undo entry — breaking vim's "one command = one `u`" semantics.
  *
- * Use [withVimUndoGroup] when the edits live in a single block;
- * use [startVimUndoGroup] / [finishVimUndoGroup] when start and finish must
+ * When the edits live in a single block, use
+ * [com.maddyhome.idea.vim.undo.VimUndoRedo.undoTransaction], which can be
+ * nested and only opens a group for the outermost transaction. Use
+ * [startVimUndoGroup] / [finishVimUndoGroup] when start and finish must
  * span different methods (e.g. block-insert: start in `initBlockInsert`,
  * finish in `repeatInsert`).
  *
  * In non-split (monolith) mode the calls are no-ops because
  * [rpcSplitModeOnly] short-circuits.
  */
-internal inline fun withVimUndoGroup(editor: VimEditor, name: String, block: () -> Unit) {
-  startVimUndoGroup(editor, name)
-  try {
-    block()
-  } finally {
-    finishVimUndoGroup(editor)
-  }
-}
 
 internal fun startVimUndoGroup(editor: VimEditor, name: String) {
   val ijEditor = (editor as IjVimEditor).editor
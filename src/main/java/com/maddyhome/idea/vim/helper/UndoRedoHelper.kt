@@ -25,6 +25,8 @@ import com.maddyhome.idea.vim.api.VimEditor
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.common.ChangesListener
 import com.maddyhome.idea.vim.common.InsertSequence
+import com.maddyhome.idea.vim.group.finishVimUndoGroup
+import com.maddyhome.idea.vim.group.startVimUndoGroup
 import com.maddyhome.idea.vim.newapi.IjVimCaret
 import com.maddyhome.idea.vim.newapi.globalIjOptions
 import com.maddyhome.idea.vim.newapi.ij
@@ -137,6 +139,30 @@ class UndoRedoHelper : VimTimestampBasedUndoService {
     return false
   }
 
+  /**
+   * Groups the changes of a compound command into one undo step
+   *
+   * The platform groups all changes made while a command is executing, but speculative undo in split mode disables
+   * this, so the outermost transaction on each editor also opens an undo mark on the backend. When debug logging is
+   * enabled, the number of document changes and changed characters in each undo step are logged, to measure the size
+   * of the step.
+   */
+  override fun <T> undoTransaction(editor: VimEditor, name: String, action: () -> T): T {
+    val ijEditor = editor.ij
+    val outermost = ijEditor.vimUndoTransactionDepth++ == 0
+    val tracker = if (outermost && logger.isDebugEnabled) UndoStepTracker(editor) else null
+    if (outermost) startVimUndoGroup(editor, name)
+    try {
+      return action()
+    } finally {
+      ijEditor.vimUndoTransactionDepth--
+      if (outermost) {
+        finishVimUndoGroup(editor)
+        tracker?.finish(name)
+      }
+    }
+  }
+
   override fun startInsertSequence(caret: VimCaret, startOffset: Int, startNanoTime: Long) {
     (caret as IjVimCaret).startInsertSequence(startOffset, startNanoTime)
   }
@@ -244,6 +270,28 @@ class UndoRedoHelper : VimTimestampBasedUndoService {
     tracker.block()
   }
 
+  private class UndoStepTracker(editor: VimEditor) : ChangesListener {
+    // IjVimEditor.document returns a new wrapper on each call, and a listener can only be removed from the wrapper it
+    // was added to
+    private val document = editor.document
+    private var changes = 0
+    private var characters = 0L
+
+    init {
+      document.addChangeListener(this)
+    }
+
+    override fun documentChanged(change: ChangesListener.Change) {
+      changes++
+      characters += change.oldFragment.length + change.newFragment.length
+    }
+
+    fun finish(name: String) {
+      document.removeChangeListener(this)
+      logger.debug("Undo step '$name': $changes document changes, $characters characters changed")
+    }
+  }
+
   private class ChangeTracker(private val editor: VimEditor) {
     private val initialPath = editor.getPath()
     private val changeListener = object : ChangesListener {
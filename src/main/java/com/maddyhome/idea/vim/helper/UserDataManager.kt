@@ -124,6 +124,11 @@ var Editor.vimHasRelativeLineNumbersInstalled: Boolean by userDataOr { false }
 var Editor.vimMorePanel: VimOutputPanel? by userData()
 
 var Editor.vimChangeActionSwitchMode: Mode? by userData()
+
+/**
+ * The number of nested undo transactions running on this editor. See [UndoRedoHelper.undoTransaction]
+ */
+internal var Editor.vimUndoTransactionDepth: Int by userDataOr { 0 }
 var Editor.replaceMask: VimEditorReplaceMask? by userData()
 
 var Caret.currentInsert: InsertSequence? by userData()
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.listener
+
+import com.intellij.openapi.editor.Document
+import com.intellij.openapi.editor.Editor
+import com.intellij.openapi.editor.EditorFactory
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.newapi.IjVimDocument
+import com.maddyhome.idea.vim.newapi.IjVimEditor
+
+/**
+ * The editors of a changed document, shared by all the listeners that react to a single document change
+ *
+ * [VimListenerManager.VimDocumentListener] creates one of these before the document changes and passes it to each
+ * listener, both before and after the change. The editors are looked up the first time they're needed, so listeners
+ * that return early don't pay for the lookup, and the others only pay for it once.
+ */
+internal class DocumentChangeContext(val document: Document) {
+  /**
+   * All editors for the document, including those that might belong to Code With Me guests
+   */
+  val editors: Array<Editor> by lazy(LazyThreadSafetyMode.NONE) { EditorFactory.getInstance().getEditors(document) }
+
+  /**
+   * Any editor for the document, used to convert offsets to lines
+   *
+   * It doesn't matter which editor we use, because they would all return the same results. It might be null if the
+   * change came from a remote guest and there is no open local editor.
+   */
+  val anyEditor: VimEditor? by lazy(LazyThreadSafetyMode.NONE) { editors.firstOrNull()?.let { IjVimEditor(it) } }
+
+  /**
+   * The local editors for the document that IdeaVim has initialised, which are the only ones we should add
+   * highlights to
+   */
+  val localEditors: Collection<VimEditor> by lazy(LazyThreadSafetyMode.NONE) {
+    injector.editorGroup.getEditors(IjVimDocument(document))
+  }
+}
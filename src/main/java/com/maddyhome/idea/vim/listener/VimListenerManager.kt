@@ -101,6 +101,7 @@ import com.maddyhome.idea.vim.helper.CaretVisualAttributesListener
 import com.maddyhome.idea.vim.helper.CmdwinKeys
 import com.maddyhome.idea.vim.helper.EditorHelper
 import com.maddyhome.idea.vim.helper.GuicursorChangeListener
+import com.maddyhome.idea.vim.helper.LineMetadataIndex
 import com.maddyhome.idea.vim.helper.StrictMode
 import com.maddyhome.idea.vim.helper.exitSelectMode
 import com.maddyhome.idea.vim.helper.exitVisualMode
@@ -435,31 +436,60 @@ object VimListenerManager {
    * edits a file. Updating search highlights will be a no-op if there are no open local editors)
    */
   class VimDocumentListener : DocumentListener {
+    // The editors resolved before the change, reused by the listeners notified after the change
+    private var change: DocumentChangeContext? = null
+
     override fun beforeDocumentChange(event: DocumentEvent) {
-      MarkUpdater.beforeDocumentChange(event)
-      snapshotChangedLine(event)
+      val change = DocumentChangeContext(event.document).also { this.change = it }
+      MarkUpdater.beforeDocumentChange(event, change)
+      snapshotChangedLine(event, change)
       IjVimSearchGroup.DocumentSearchListener.INSTANCE.beforeDocumentChange(event)
       IjVimRedrawService.RedrawListener.beforeDocumentChange(event)
     }
 
     override fun documentChanged(event: DocumentEvent) {
-      MarkUpdater.documentChanged(event)
-      IjVimSearchGroup.DocumentSearchListener.INSTANCE.documentChanged(event)
+      val change = this.change?.takeIf { it.document == event.document } ?: DocumentChangeContext(event.document)
+      this.change = null
+      MarkUpdater.documentChanged(event, change)
+      change.anyEditor?.let {
+        LineMetadataIndex.documentChanged(
+          it,
+          event.offset,
+          event.oldLength,
+          event.newLength,
+          event.oldTimeStamp,
+          event.document.modificationStamp,
+        )
+      }
+      IjVimSearchGroup.DocumentSearchListener.INSTANCE.documentChanged(event, change)
       IjVimRedrawService.RedrawListener.documentChanged(event)
     }
 
+    /**
+     * Called once a bulk update, such as reformatting or updating from VCS, has finished making changes
+     *
+     * While the document is in bulk update mode, marks are still updated for each change, but updating search
+     * highlights and redrawing is deferred until now.
+     */
+    override fun bulkUpdateFinished(document: Document) {
+      IjVimSearchGroup.DocumentSearchListener.INSTANCE.bulkUpdateFinished(document)
+      IjVimRedrawService.RedrawListener.bulkUpdateFinished(document)
+    }
+
     /**
      * Saves the pristine line for the "U" command before it is changed. We only work out which line
      * is about to change here; the snapshot itself is owned by [injector.lineChange]. Only single-line
      * changes are tracked, mirroring Vim's `u_save` (which calls `u_saveline` only for a 1-line range).
      */
-    private fun snapshotChangedLine(event: DocumentEvent) {
+    private fun snapshotChangedLine(event: DocumentEvent, change: DocumentChangeContext) {
       if (VimPlugin.isNotEnabled()) return
+      // Bulk updates aren't user edits of a single line
+      if (event.document.isInBulkUpdate) return
       val doc = event.document
       val startLine = doc.getLineNumber(event.offset)
       val endLine = doc.getLineNumber(event.offset + event.oldLength)
       if (startLine != endLine || event.newFragment.contains('\n')) return
-      val editor = EditorFactory.getInstance().getEditors(doc).firstOrNull()?.let { IjVimEditor(it) } ?: return
+      val editor = change.anyEditor ?: return
       injector.lineChange.snapshotLine(startLine, editor)
     }
   }
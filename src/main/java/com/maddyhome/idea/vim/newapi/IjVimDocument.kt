@@ -40,6 +40,9 @@ class IjVimDocument(val document: Document) : VimDocument {
     document.removeDocumentListener(nativeListener)
   }
 
+  override val modificationStamp: Long
+    get() = document.modificationStamp
+
   override fun getOffsetGuard(offset: Int): LiveRange? {
     return document.getOffsetGuard(offset)?.vim
   }
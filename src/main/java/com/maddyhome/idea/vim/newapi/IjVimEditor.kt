@@ -25,6 +25,7 @@ import com.intellij.openapi.editor.impl.CaretModelImpl
 import com.intellij.openapi.editor.impl.EditorImpl
 import com.intellij.openapi.vfs.VirtualFileManager
 import com.intellij.platform.project.projectId
+import com.intellij.util.DocumentUtil
 import com.maddyhome.idea.vim.api.BufferPosition
 import com.maddyhome.idea.vim.api.ExecutionContext
 import com.maddyhome.idea.vim.api.ImmutableVimCaret
@@ -47,6 +48,7 @@ import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.common.IndentConfig
 import com.maddyhome.idea.vim.common.LiveRange
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.common.TextReplacement
 import com.maddyhome.idea.vim.common.VimEditorReplaceMask
 import com.maddyhome.idea.vim.group.visual.vimSetSystemBlockSelectionSilently
 import com.maddyhome.idea.vim.helper.EditorHelper
@@ -74,6 +76,8 @@ class IjVimEditor(editor: Editor) : MutableLinearEditor, VimEditorBase() {
     // For cases where Editor does not have a project (for some reason)
     // It's something IJ Platform related and stored here because of this reason
     const val DEFAULT_PROJECT_ID = "no project"
+
+    private const val BULK_REPLACE_THRESHOLD = 100
   }
 
   // All the editor actions should be performed with top level editor!!!
@@ -166,6 +170,17 @@ class IjVimEditor(editor: Editor) : MutableLinearEditor, VimEditorBase() {
     editor.document.replaceString(start, end, newString)
   }
 
+  override fun replaceStrings(replacements: List<TextReplacement>) {
+    val document = editor.document
+    // Bulk mode defers listener and range marker updates until the end, but has its own overhead, so only use it when
+    // there are enough changes to benefit
+    DocumentUtil.executeInBulk(document, replacements.size > BULK_REPLACE_THRESHOLD) {
+      replacements.sortedByDescending { it.startOffset }.forEach {
+        document.replaceString(it.startOffset, it.endOffset, it.text)
+      }
+    }
+  }
+
   // TODO: 30.12.2021 Is end offset inclusive?
   override fun getLineRange(line: Int): Pair<Int, Int> {
     // TODO: 30.12.2021 getLineEndOffset returns the same value for "xyz" and "xyz\n"
@@ -173,7 +188,7 @@ class IjVimEditor(editor: Editor) : MutableLinearEditor, VimEditorBase() {
   }
 
   override fun getLine(offset: Int): Int {
-    return editor.offsetToLogicalPosition(offset).line
+    return offsetToBufferLine(offset)
   }
 
   override fun carets(): List<VimCaret> {
@@ -302,6 +317,20 @@ class IjVimEditor(editor: Editor) : MutableLinearEditor, VimEditorBase() {
     return editor.offsetToLogicalPosition(offset).let { BufferPosition(it.line, it.column, it.leansForward) }
   }
 
+  override fun offsetToBufferLine(offset: Int): Int {
+    // Logical lines are document lines, so there's no need to calculate the logical position's column
+    val document = editor.document
+    return if (offset >= document.textLength) {
+      (document.lineCount - 1).coerceAtLeast(0)
+    } else {
+      document.getLineNumber(offset.coerceAtLeast(0))
+    }
+  }
+
+  override fun offsetToLineStartOffset(offset: Int): Int {
+    return editor.document.getLineStartOffset(offsetToBufferLine(offset))
+  }
+
   override fun bufferPositionToOffset(position: BufferPosition): Int {
     val logicalPosition = LogicalPosition(position.line, position.column, position.leansForward)
     return editor.logicalPositionToOffset(logicalPosition)
@@ -12,6 +12,7 @@ import com.intellij.openapi.components.PersistentStateComponent
 import com.intellij.openapi.components.RoamingType
 import com.intellij.openapi.components.State
 import com.intellij.openapi.components.Storage
+import com.intellij.openapi.editor.Document
 import com.intellij.openapi.editor.Editor
 import com.intellij.openapi.editor.event.DocumentEvent
 import com.intellij.openapi.editor.event.DocumentListener
@@ -36,6 +37,7 @@ import com.maddyhome.idea.vim.helper.updateSearchCount
 import com.maddyhome.idea.vim.helper.updateSearchHighlights
 import com.maddyhome.idea.vim.helper.vimIncsearchCurrentMatchOffset
 import com.maddyhome.idea.vim.helper.vimLastHighlighters
+import com.maddyhome.idea.vim.listener.DocumentChangeContext
 import com.maddyhome.idea.vim.options.GlobalOptionChangeListener
 import org.jdom.Element
 import org.jetbrains.annotations.Contract
@@ -84,10 +86,26 @@ open class IjVimSearchGroup : VimSearchGroupBase(), PersistentStateComponent<Ele
     }
   }
 
+  // Set when highlights should have been updated while replaying keys. They are updated once the replay has finished
+  private var isHighlightUpdateDeferred = false
+
   override fun updateSearchHighlights(force: Boolean) {
+    if (injector.macro.isReplayingKeys) {
+      isHighlightUpdateDeferred = true
+      return
+    }
     updateSearchHighlights(getLastUsedPattern(), lastIgnoreSmartCase, showSearchHighlight, force)
   }
 
+  /**
+   * Updates all search highlights if any update was skipped while replaying keys
+   */
+  fun updateDeferredSearchHighlights() {
+    if (!isHighlightUpdateDeferred) return
+    isHighlightUpdateDeferred = false
+    updateSearchHighlights(true)
+  }
+
   override fun updateSearchCount(matchOffset: Int) {
     updateSearchCount(getLastUsedPattern(), lastIgnoreSmartCase, matchOffset)
   }
@@ -258,15 +276,31 @@ open class IjVimSearchGroup : VimSearchGroupBase(), PersistentStateComponent<Ele
    */
   class DocumentSearchListener @Contract(pure = true) private constructor() : DocumentListener {
     override fun documentChanged(event: DocumentEvent) {
+      documentChanged(event, DocumentChangeContext(event.document))
+    }
+
+    internal fun documentChanged(event: DocumentEvent, change: DocumentChangeContext) {
       // Loop over all local editors for the changed document, across all projects, and update search highlights.
       // Note that the change may have come from a remote guest in Code With Me scenarios (in which case
       // ClientId.current will be a guest ID), but we don't care - we still need to add/remove highlights for the
       // changed text. Make sure we only update local editors, though.
-      val document = event.document
-      for (vimEditor in injector.editorGroup.getEditors(IjVimDocument(document))) {
+      val document = change.document
+
+      // The changed lines are the same for every editor, so only work them out once
+      var startLine = -1
+      var endLine = -1
+      for (vimEditor in change.localEditors) {
         val editor = vimEditor.ij
         var existingHighlighters = editor.vimLastHighlighters ?: continue
 
+        // Don't re-highlight after every change made by a macro or `:normal`, or during a bulk update, when the editor
+        // isn't kept up to date with the document. All highlights are updated once the replay or bulk update has
+        // finished
+        if (injector.macro.isReplayingKeys || document.isInBulkUpdate) {
+          (injector.searchGroup as IjVimSearchGroup).isHighlightUpdateDeferred = true
+          continue
+        }
+
         if (logger.isDebug()) {
           logger.debug("hls=$existingHighlighters")
           logger.debug("event=$event")
@@ -276,10 +310,12 @@ open class IjVimSearchGroup : VimSearchGroupBase(), PersistentStateComponent<Ele
         // If we're deleting lines, this will clear + re-highlight the new current line, which hasn't been modified.
         // However, we still want to re-highlight this line in case any highlights cross the line boundaries.
         // If we're adding lines, this will clear + re-highlight all new lines.
-        val startPosition = editor.offsetToLogicalPosition(event.offset)
-        val endPosition = editor.offsetToLogicalPosition(event.offset + event.newLength)
-        val startLineOffset = document.getLineStartOffset(startPosition.line)
-        val endLineOffset = document.getLineEndOffset(endPosition.line)
+        if (startLine < 0) {
+          startLine = document.getLineNumber(event.offset)
+          endLine = document.getLineNumber(event.offset + event.newLength)
+        }
+        val startLineOffset = document.getLineStartOffset(startLine)
+        val endLineOffset = document.getLineEndOffset(endLine)
 
         // Remove any highlights that have already been deleted, and remove + clear those that intersect with the change
         val iter = existingHighlighters.iterator()
@@ -293,11 +329,7 @@ open class IjVimSearchGroup : VimSearchGroupBase(), PersistentStateComponent<Ele
           }
         }
 
-        (injector.searchGroup as VimSearchGroupBase).highlightSearchLines(
-          editor.vim,
-          startPosition.line,
-          endPosition.line
-        )
+        (injector.searchGroup as VimSearchGroupBase).highlightSearchLines(editor.vim, startLine, endLine)
 
         // The re-highlighted lines are all added as normal matches, and the edit might have moved a match under (or out
         // from under) the caret, so work out the current match again
@@ -305,12 +337,16 @@ open class IjVimSearchGroup : VimSearchGroupBase(), PersistentStateComponent<Ele
 
         if (logger.isDebug()) {
           existingHighlighters = editor.vimLastHighlighters!!
-          logger.debug("sl=" + startPosition.line + ", el=" + endPosition.line)
+          logger.debug("sl=$startLine, el=$endLine")
           logger.debug("hls=$existingHighlighters")
         }
       }
     }
 
+    override fun bulkUpdateFinished(document: Document) {
+      VimPlugin.getSearchIfCreated()?.updateDeferredSearchHighlights()
+    }
+
     companion object {
       var INSTANCE: DocumentSearchListener = DocumentSearchListener()
     }
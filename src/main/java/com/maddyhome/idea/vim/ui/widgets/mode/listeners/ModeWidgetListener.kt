@@ -14,6 +14,7 @@ import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.RecursionManager
 import com.intellij.openapi.wm.WindowManager
 import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.common.EditorListener
 import com.maddyhome.idea.vim.common.ModeChangeListener
 import com.maddyhome.idea.vim.newapi.IjVimEditor
@@ -27,6 +28,8 @@ import com.maddyhome.idea.vim.ui.widgets.mode.updateModeWidget
 
 internal class ModeWidgetListener : ModeChangeListener, EditorListener, VimWidgetListener({ updateModeWidget() }) {
   override fun modeChanged(editor: VimEditor, oldMode: Mode) {
+    // The widget is repainted once a macro or other bulk replay has finished
+    if (injector.macro.isReplayingKeys) return
     val modeWidget = getWidget(editor) ?: return
     val editorMode = editor.mode
     if (editorMode !is Mode.OP_PENDING) {
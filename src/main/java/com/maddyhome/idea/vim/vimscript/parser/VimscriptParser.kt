@@ -8,13 +8,20 @@
 
 package com.maddyhome.idea.vim.vimscript.parser
 
+import com.intellij.openapi.application.PathManager
+import com.maddyhome.idea.vim.VimPlugin
 import com.maddyhome.idea.vim.api.VimscriptParserBase
 import com.maddyhome.idea.vim.vimscript.model.commands.EngineExCommandProvider
 import com.maddyhome.idea.vim.vimscript.model.commands.ExCommandProvider
+import kotlin.io.path.Path
 
 object VimscriptParser : VimscriptParserBase() {
   private val additionalCommandProviders = mutableListOf<ExCommandProvider>()
 
+  override val recoveryCache: ScriptRecoveryCache by lazy {
+    ScriptRecoveryCache(Path(PathManager.getSystemPath(), "ideavim", "script-recovery"), VimPlugin.getVersion())
+  }
+
   override val commandProviders: List<ExCommandProvider>
     get() = listOf(EngineExCommandProvider) + additionalCommandProviders
 
@@ -544,4 +544,23 @@ class MacroActionTest : VimTestCase() {
     typeText("@a")
     assertState("Spongebob Squarepants")
   }
+
+  @Test
+  fun `test replaying macro again after adding a mapping for its keys`() {
+    configureByText("${c}one\ntwo\nthree\nfour")
+    typeText("qa", "x", "q")
+    typeText("@a")
+    assertState("${c}e\ntwo\nthree\nfour")
+    enterCommand("nnoremap x dd")
+    typeText("@a")
+    assertState("${c}two\nthree\nfour")
+  }
+
+  @Test
+  fun `test macro that adds a mapping for its own keys`() {
+    configureByText("${c}one\ntwo\nthree\nfour")
+    enterCommand("""let @a = ":nnoremap x dd\<CR>x"""")
+    typeText("@a")
+    assertState("${c}two\nthree\nfour")
+  }
 }
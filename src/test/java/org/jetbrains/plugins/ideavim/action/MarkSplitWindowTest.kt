@@ -0,0 +1,78 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.action
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.editor.Editor
+import com.maddyhome.idea.vim.newapi.vim
+import org.jetbrains.plugins.ideavim.SkipNeovimReason
+import org.jetbrains.plugins.ideavim.TestWithoutNeovim
+import org.jetbrains.plugins.ideavim.VimSplitWindowTestCase
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+
+/**
+ * Tests that marks are updated once per change to a document, however many windows show it
+ */
+@TestWithoutNeovim(
+  reason = SkipNeovimReason.SEE_DESCRIPTION,
+  description = "These tests need more than one window showing the same buffer. Neovim testing drives a single editor.",
+)
+class MarkSplitWindowTest : VimSplitWindowTestCase() {
+  private fun configureMainWindow(): Editor {
+    var editor: Editor? = null
+    ApplicationManager.getApplication().invokeAndWait {
+      editor = configureByText(
+        """
+          |foo
+          |ba${c}r
+          |baz
+          |qux
+        """.trimMargin(),
+      )
+    }
+    return editor!!
+  }
+
+  @Test
+  fun `test marks are moved down once when lines are pasted above with a split window open`() {
+    val mainWindow = configureMainWindow()
+    typeText("ma" + "mB")
+
+    val splitWindow = openSplitWindow(mainWindow)
+    assertEquals(mainWindow.document, splitWindow.document)
+
+    selectWindow(mainWindow)
+    typeText("2yy" + "k" + "P")
+
+    val localMark = assertNotNull(getMark(mainWindow.vim.primaryCaret(), 'a'))
+    assertEquals(3, localMark.line)
+    assertEquals(2, localMark.col)
+    val globalMark = assertNotNull(getMark(mainWindow.vim.primaryCaret(), 'B'))
+    assertEquals(3, globalMark.line)
+    assertEquals(2, globalMark.col)
+  }
+
+  @Test
+  fun `test marks are moved up once when lines are deleted above with a split window open`() {
+    val mainWindow = configureMainWindow()
+    typeText("G" + "ma" + "mB")
+
+    val splitWindow = openSplitWindow(mainWindow)
+
+    selectWindow(splitWindow)
+    typeText("gg" + "2dd")
+
+    val localMark = assertNotNull(getMark(mainWindow.vim.primaryCaret(), 'a'))
+    assertEquals(1, localMark.line)
+    val globalMark = assertNotNull(getMark(mainWindow.vim.primaryCaret(), 'B'))
+    assertEquals(1, globalMark.line)
+  }
+}
@@ -179,6 +179,23 @@ class MarkTest : VimTestCase() {
 //      assertEquals(6, mark.col)
   }
 
+  // |m|
+  @Test
+  fun testLocalMarkIsMovedDownOnceWhenLinesArePastedAbove() {
+    typeTextInFile(
+      injector.parser.parseKeys("ma" + "2yy" + "k" + "P"),
+      """    foo
+    ba<caret>r
+    baz
+""",
+    )
+    val vimEditor: VimEditor = IjVimEditor(fixture.editor)
+    val mark = getMark(vimEditor.primaryCaret(), 'a')
+    assertNotNull<Any>(mark)
+    kotlin.test.assertEquals(3, mark.line)
+    kotlin.test.assertEquals(6, mark.col)
+  }
+
   // |m| |`|
   @Test
   fun testMarkAndJumpToMark() {
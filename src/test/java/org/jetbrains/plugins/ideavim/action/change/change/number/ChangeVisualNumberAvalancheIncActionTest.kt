@@ -11,6 +11,7 @@ package org.jetbrains.plugins.ideavim.action.change.change.number
 import com.maddyhome.idea.vim.state.mode.Mode
 import org.jetbrains.plugins.ideavim.VimTestCase
 import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
 
 /**
  * @author Alex Plate
@@ -51,4 +52,21 @@ class ChangeVisualNumberAvalancheIncActionTest : VimTestCase() {
       Mode.NORMAL(),
     )
   }
+
+  @Test
+  fun `test inc visual avalanche over many lines`() {
+    // Enough lines to apply the changes in bulk update mode
+    val before = (1..500).joinToString("\n") { "number 0" }
+    val after = (1..500).joinToString("\n") { "number $it" }
+    doTest("VGg<C-A>", "${c}$before", "${c}$after", Mode.NORMAL())
+  }
+
+  @Test
+  fun `test undo inc visual avalanche over many lines as single step`() {
+    val before = (1..500).joinToString("\n") { "number 0" }
+    configureByText("${c}$before")
+    typeText("VGg<C-A>")
+    typeText("u")
+    assertEquals(before, fixture.editor.document.text)
+  }
 }
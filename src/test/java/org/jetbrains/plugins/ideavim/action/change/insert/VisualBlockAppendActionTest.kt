@@ -50,6 +50,32 @@ class VisualBlockAppendActionTest : VimTestCase() {
     assertState(after)
   }
 
+  @TestWithoutNeovim(SkipNeovimReason.DIFFERENT)
+  @Test
+  fun `test visual block append pads short lines and undoes in one step`() {
+    val before = """
+            ${c}int a;
+            x
+            int c;
+    """.trimIndent()
+    typeTextInFile(injector.parser.parseKeys("<C-V>" + "2j" + "e" + "A" + " const" + "<Esc>"), before)
+    assertState(
+      """
+            int const a;
+            x   const
+            int const c;
+      """.trimIndent(),
+    )
+    typeText("u")
+    assertState(
+      """
+            int a;
+            x
+            int c;
+      """.trimIndent(),
+    )
+  }
+
   @Test
   fun `test append in non block mode`() {
     doTest(
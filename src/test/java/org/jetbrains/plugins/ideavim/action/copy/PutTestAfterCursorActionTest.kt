@@ -347,6 +347,36 @@ class PutTestAfterCursorActionTest : VimTestCase() {
     )
   }
 
+  @Test
+  fun `test undo counted put visual block past end of file`() {
+    configureByText(
+      """
+      ${c}abc
+      def
+      x
+    """.trimIndent()
+    )
+    typeText("<C-V>jly")  // Yank the first 2 columns of the first two lines
+    typeText("G")
+    typeText("2p")
+    assertState(
+      """
+      abc
+      def
+      x${c}abab
+       dede
+    """.trimIndent()
+    )
+    typeText("u")
+    assertState(
+      """
+      abc
+      def
+      ${c}x
+    """.trimIndent()
+    )
+  }
+
   @Test
   fun `test undo after put after cursor with oldundo`() {
     configureByText("Hello ${c}world")
@@ -12,6 +12,7 @@ import com.maddyhome.idea.vim.api.getMappingInfo
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.api.keys
 import com.maddyhome.idea.vim.command.MappingMode
+import com.maddyhome.idea.vim.diagnostic.StartupTimeRecorder
 import com.maddyhome.idea.vim.key.MappingOwner
 import com.maddyhome.idea.vim.newapi.vim
 import com.maddyhome.idea.vim.vimscript.model.commands.SourceCommand
@@ -65,6 +66,32 @@ class SourceCommandTest : VimTestCase() {
     }
   }
 
+  @Test
+  fun `startup time records only the lines of the sourced file`() {
+    configureByText("")
+    val file = tempDir!!.resolve("startup.vim")
+    file.writeText(
+      """
+      let g:first = 1
+      execute "let g:second = 2\n\nlet g:third = 3"
+      let g:fourth = 4
+      """.trimIndent()
+    )
+
+    StartupTimeRecorder.recordStartup("startup") {
+      injector.vimscriptExecutor.executeFile(file, fixture.editor.vim, false)
+    }
+    val lines = StartupTimeRecorder.entries.filter { it.kind == StartupTimeRecorder.Kind.LINE }.map { it.name }
+    assertEquals(
+      listOf(
+        "line 1: let g:first = 1",
+        "line 2: execute \"let g:second = 2\\n\\nlet g:third = 3\"",
+        "line 3: let g:fourth = 4",
+      ),
+      lines,
+    )
+  }
+
   @Test
   fun `loading NOT ideavimrc configuration via API`() {
     configureByText("")
@@ -11,9 +11,11 @@ package org.jetbrains.plugins.ideavim.ex.parser
 import com.maddyhome.idea.vim.common.TextRange
 import com.maddyhome.idea.vim.vimscript.model.statements.IfStatement
 import com.maddyhome.idea.vim.vimscript.parser.VimscriptParser
+import com.maddyhome.idea.vim.vimscript.parser.errors.IdeavimErrorListener
 import org.jetbrains.plugins.ideavim.VimTestCase
 import org.junit.jupiter.api.Test
 import kotlin.test.assertEquals
+import kotlin.test.assertNotEquals
 
 class ExecutableTextRangesTests : VimTestCase() {
   @Test
@@ -74,4 +76,40 @@ class ExecutableTextRangesTests : VimTestCase() {
     val letCommand = ifStatement.conditionToBody.first().second.first()
     assertEquals(TextRange(149, 162), letCommand.rangeInScript)
   }
+
+  @Test
+  fun `test sourced script with error uses cached recovery`() {
+    val scriptString = """
+      set rnu
+      if 1
+        -0§a " some line that parser cannot recognize (it should be ignored)
+        let y = 77
+      endif
+    """.trimIndent()
+    VimscriptParser.parseFile(scriptString)
+    val errors = VimscriptParser.lastParseErrors.toList()
+    IdeavimErrorListener.testLogger.clear()
+
+    val script = VimscriptParser.parseFile(scriptString)
+    assertEquals(emptyList(), IdeavimErrorListener.testLogger)
+    assertEquals(errors, VimscriptParser.lastParseErrors)
+    assertEquals(2, script.units.size)
+    val ifStatement = script.units.last() as IfStatement
+    assertEquals(TextRange(8, 103), ifStatement.rangeInScript)
+    val letCommand = ifStatement.conditionToBody.first().second.first()
+    assertEquals(TextRange(84, 97), letCommand.rangeInScript)
+  }
+
+  @Test
+  fun `test script that is not a sourced file does not use cached recovery`() {
+    val scriptString = """
+      set rnu
+      -0§a " some line that parser cannot recognize (it should be ignored)
+    """.trimIndent()
+    VimscriptParser.parseFile(scriptString)
+    IdeavimErrorListener.testLogger.clear()
+
+    VimscriptParser.parse(scriptString)
+    assertNotEquals(emptyList(), IdeavimErrorListener.testLogger)
+  }
 }
@@ -8,6 +8,8 @@
 
 package org.jetbrains.plugins.ideavim.group.search
 
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.util.DocumentUtil
 import org.jetbrains.plugins.ideavim.VimTestCase
 import org.junit.jupiter.api.Test
 
@@ -577,4 +579,37 @@ class SearchHighlightsTest : VimTestCase() {
     enterSearch(pattern)
     assertSearchHighlights(pattern, "\t‷foo‴")
   }
+
+  @Test
+  fun `test search highlights are updated after bulk update`() {
+    configureByText(
+      """I found it in a legendary land
+          |${c}all rocks and lavender and tufted grass,
+          |where it was settled on some sodden sand
+          |hard by the torrent of a mountain pass.
+      """.trimMargin(),
+    )
+    enterCommand("set hlsearch")
+
+    val pattern = "and"
+    enterSearch(pattern)
+
+    val document = fixture.editor.document
+    WriteCommandAction.runWriteCommandAction(fixture.project) {
+      DocumentUtil.executeInBulk(document) {
+        document.replaceString(0, 7, "I landed")
+        document.insertString(document.getLineStartOffset(3), "a grand hand\n")
+      }
+    }
+
+    assertSearchHighlights(
+      pattern,
+      """I l«and»ed it in a legendary l«and»
+          |all rocks ‷and‴ lavender «and» tufted grass,
+          |where it was settled on some sodden s«and»
+          |a gr«and» h«and»
+          |hard by the torrent of a mountain pass.
+      """.trimMargin(),
+    )
+  }
 }
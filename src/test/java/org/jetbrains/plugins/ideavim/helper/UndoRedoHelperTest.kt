@@ -0,0 +1,61 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.helper
+
+import com.intellij.openapi.editor.EditorFactory
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.helper.vimUndoTransactionDepth
+import com.maddyhome.idea.vim.newapi.vim
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class UndoRedoHelperTest : VimTestCase() {
+  @Test
+  fun `test only the outermost transaction of an editor opens an undo group`() {
+    val editor = configureByText("lorem ipsum")
+    val result = injector.undo.undoTransaction(editor.vim, "outer") {
+      assertEquals(1, editor.vimUndoTransactionDepth)
+      injector.undo.undoTransaction(editor.vim, "inner") {
+        assertEquals(2, editor.vimUndoTransactionDepth)
+        42
+      }
+    }
+    assertEquals(42, result)
+    assertEquals(0, editor.vimUndoTransactionDepth)
+  }
+
+  @Test
+  fun `test transaction on another editor opens its own undo group`() {
+    val editor = configureByText("lorem ipsum")
+    val otherEditor = EditorFactory.getInstance().createEditor(editor.document, fixture.project)
+    try {
+      injector.undo.undoTransaction(editor.vim, "outer") {
+        injector.undo.undoTransaction(otherEditor.vim, "other") {
+          assertEquals(1, editor.vimUndoTransactionDepth)
+          assertEquals(1, otherEditor.vimUndoTransactionDepth)
+        }
+      }
+    } finally {
+      EditorFactory.getInstance().releaseEditor(otherEditor)
+    }
+  }
+
+  @Test
+  fun `test failed transaction restores the depth`() {
+    val editor = configureByText("lorem ipsum")
+    assertFailsWith<IllegalStateException> {
+      injector.undo.undoTransaction(editor.vim, "outer") {
+        injector.undo.undoTransaction(editor.vim, "inner") { error("Command failed") }
+      }
+    }
+    assertEquals(0, editor.vimUndoTransactionDepth)
+  }
+}
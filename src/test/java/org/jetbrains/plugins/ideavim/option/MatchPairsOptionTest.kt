@@ -0,0 +1,42 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.option
+
+import com.maddyhome.idea.vim.newapi.vim
+import com.maddyhome.idea.vim.options.helpers.MatchPairsOptionHelper
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInfo
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class MatchPairsOptionTest : VimTestCase() {
+  @BeforeEach
+  override fun setUp(testInfo: TestInfo) {
+    super.setUp(testInfo)
+    configureByText("\n")
+  }
+
+  @Test
+  fun `test parsed 'matchpairs' value is updated when option changes`() {
+    val editor = fixture.editor.vim
+    assertEquals(')', MatchPairsOptionHelper.getMatchPairs(editor).getMatchingChar('('))
+    assertNull(MatchPairsOptionHelper.getMatchPairs(editor).getMatchingChar('<'))
+
+    enterCommand("set matchpairs+=<:>")
+    val matchPairs = MatchPairsOptionHelper.getMatchPairs(editor)
+    assertEquals('>', matchPairs.getMatchingChar('<'))
+    assertEquals('<', matchPairs.getMatchingChar('>'))
+    assertTrue(matchPairs.isOpenChar('<'))
+    assertFalse(matchPairs.isOpenChar('>'))
+  }
+}
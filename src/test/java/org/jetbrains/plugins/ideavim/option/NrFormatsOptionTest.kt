@@ -0,0 +1,45 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.option
+
+import com.maddyhome.idea.vim.helper.enumSetOf
+import com.maddyhome.idea.vim.newapi.vim
+import com.maddyhome.idea.vim.options.helpers.NrFormat
+import com.maddyhome.idea.vim.options.helpers.NrFormatsOptionHelper
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInfo
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class NrFormatsOptionTest : VimTestCase() {
+  @BeforeEach
+  override fun setUp(testInfo: TestInfo) {
+    super.setUp(testInfo)
+    configureByText("\n")
+  }
+
+  @Test
+  fun `test default 'nrformats' value`() {
+    assertEquals(enumSetOf(NrFormat.HEX), NrFormatsOptionHelper.getNrFormats(fixture.editor.vim))
+  }
+
+  @Test
+  fun `test parsed 'nrformats' value is updated when option changes`() {
+    assertEquals(enumSetOf(NrFormat.HEX), NrFormatsOptionHelper.getNrFormats(fixture.editor.vim))
+    enterCommand("set nrformats+=alpha,octal")
+    assertEquals(
+      enumSetOf(NrFormat.HEX, NrFormat.ALPHA, NrFormat.OCTAL),
+      NrFormatsOptionHelper.getNrFormats(fixture.editor.vim),
+    )
+    enterCommand("set nrformats=")
+    assertTrue(NrFormatsOptionHelper.getNrFormats(fixture.editor.vim).isEmpty())
+  }
+}
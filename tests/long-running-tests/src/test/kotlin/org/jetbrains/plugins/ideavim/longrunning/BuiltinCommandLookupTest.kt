@@ -0,0 +1,151 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.longrunning
+
+import com.maddyhome.idea.vim.action.change.LazyVimCommand
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.command.MappingMode
+import com.maddyhome.idea.vim.key.KeyStrokeTrie
+import org.jetbrains.plugins.ideavim.SkipNeovimReason
+import org.jetbrains.plugins.ideavim.TestWithoutNeovim
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.Test
+import javax.swing.KeyStroke
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+/**
+ * Compares lookup time and retained size of [KeyStrokeTrie] against the map-keyed trie it replaced, for all builtin
+ * command sequences
+ */
+class BuiltinCommandLookupTest : VimTestCase() {
+  private val commands: List<Pair<List<KeyStroke>, LazyVimCommand>> by lazy {
+    MappingMode.entries.flatMap { mode ->
+      injector.keyGroup.getBuiltinCommandsTrie(mode).getEntries().map { getPath(it) to it.data!! }.toList()
+    }
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test trie lookup is not slower than map-keyed trie`() {
+    val trie = buildTrie()
+    val mapTrie = buildMapKeyedTrie()
+    commands.forEach { (keys, command) ->
+      assertSame(command, trie.getData(keys))
+      assertSame(command, mapTrie.getData(keys))
+    }
+
+    // Best of several rounds, after warming up both implementations in the first round
+    var trieNanos = Long.MAX_VALUE
+    var mapTrieNanos = Long.MAX_VALUE
+    repeat(LOOKUP_ROUNDS) {
+      trieNanos = minOf(trieNanos, measureLookups { trie.getData(it) })
+      mapTrieNanos = minOf(mapTrieNanos, measureLookups { mapTrie.getData(it) })
+    }
+
+    assertTrue(
+      trieNanos <= mapTrieNanos * 2,
+      "Trie lookups took ${trieNanos / 1_000_000}ms, map-keyed trie lookups took ${mapTrieNanos / 1_000_000}ms",
+    )
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test trie retains less memory than map-keyed trie`() {
+    val trieBytes = measureRetainedBytes { buildTrie() }
+    val mapTrieBytes = measureRetainedBytes { buildMapKeyedTrie() }
+
+    assertTrue(
+      trieBytes < mapTrieBytes,
+      "Trie retains $trieBytes bytes, map-keyed trie retains $mapTrieBytes bytes for ${commands.size} commands",
+    )
+  }
+
+  private fun buildTrie() = KeyStrokeTrie<LazyVimCommand>("builtin").apply {
+    commands.forEach { (keys, command) -> add(keys, command) }
+  }
+
+  private fun buildMapKeyedTrie() = MapKeyedTrie<LazyVimCommand>().apply {
+    commands.forEach { (keys, command) -> add(keys, command) }
+  }
+
+  private inline fun measureLookups(lookup: (List<KeyStroke>) -> LazyVimCommand?): Long {
+    val start = System.nanoTime()
+    repeat(LOOKUPS_PER_ROUND) {
+      commands.forEach { (keys, command) ->
+        if (lookup(keys) !== command) throw AssertionError("Wrong command for $keys")
+      }
+    }
+    return System.nanoTime() - start
+  }
+
+  /**
+   * Returns the heap retained by one instance, averaged over several instances that are alive at the same time
+   */
+  private fun measureRetainedBytes(build: () -> Any): Long {
+    val before = usedHeap()
+    val instances = List(RETAINED_INSTANCES) { build() }
+    val after = usedHeap()
+    assertTrue(instances.size == RETAINED_INSTANCES)
+    return (after - before) / RETAINED_INSTANCES
+  }
+
+  private fun usedHeap(): Long {
+    val runtime = Runtime.getRuntime()
+    repeat(3) { System.gc() }
+    return runtime.totalMemory() - runtime.freeMemory()
+  }
+
+  private fun getPath(node: KeyStrokeTrie.TrieNode<LazyVimCommand>): List<KeyStroke> = buildList {
+    var current: KeyStrokeTrie.TrieNode<LazyVimCommand>? = node
+    while (current?.parent != null) {
+      add(current.key)
+      current = current.parent
+    }
+    reverse()
+  }
+
+  /**
+   * The previous implementation of [KeyStrokeTrie] nodes: children in a lazily created map keyed by [KeyStroke], and a
+   * name built with the key notation parser for every node
+   */
+  private class MapKeyedTrie<T> {
+    private class Node<T>(val name: String, val key: KeyStroke?, val parent: Node<T>?, var data: T?) {
+      val children = lazy { mutableMapOf<KeyStroke, Node<T>>() }
+    }
+
+    private val root = Node<T>("", null, null, null)
+
+    fun add(keyStrokes: List<KeyStroke>, data: T) {
+      var current = root
+      keyStrokes.forEachIndexed { i, stroke ->
+        current = current.children.value.getOrPut(stroke) {
+          val name = current.name + injector.parser.toKeyNotation(stroke)
+          Node(name, stroke, current, if (i == keyStrokes.lastIndex) data else null)
+        }
+      }
+      current.data = data
+    }
+
+    fun getData(keyStrokes: List<KeyStroke>): T? {
+      var current = root
+      keyStrokes.forEach {
+        if (!current.children.isInitialized()) return null
+        current = current.children.value[it] ?: return null
+      }
+      return current.data
+    }
+  }
+
+  private companion object {
+    const val LOOKUP_ROUNDS = 5
+    const val LOOKUPS_PER_ROUND = 1_000
+    const val RETAINED_INSTANCES = 20
+  }
+}
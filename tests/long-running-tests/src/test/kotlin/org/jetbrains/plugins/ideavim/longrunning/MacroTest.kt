@@ -11,10 +11,12 @@ package org.jetbrains.plugins.ideavim.longrunning
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.testFramework.PlatformTestUtil
 import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.macro.VimMacroBase
 import org.jetbrains.plugins.ideavim.SkipNeovimReason
 import org.jetbrains.plugins.ideavim.TestWithoutNeovim
 import org.jetbrains.plugins.ideavim.VimTestCase
 import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
 
 class MacroTest : VimTestCase() {
   // was a problem on revision affec9bb61ea5e1e635673a0041d61f7af3722b2
@@ -29,4 +31,25 @@ class MacroTest : VimTestCase() {
     }
     assertState("abc de${c}fg")
   }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test editing macro over many lines with search highlights`() {
+    val lineCount = 20_000
+    val lines = (0 until lineCount).map { "key$it value value" }
+    configureByText(lines.joinToString("\n"))
+    enterCommand("set hlsearch")
+    enterSearch("value")
+
+    val macro = injector.parser.parseKeys("A;<Esc>0wcwnew<Esc>j")
+    typeText(injector.parser.parseKeys("gg0qq"))
+    typeText(macro)
+    typeText(injector.parser.parseKeys("q"))
+    typeText(injector.parser.parseKeys("${lineCount - 2}@q"))
+
+    val expected = lines.dropLast(1).map { it.replaceFirst("value", "new") + ";" } + lines.last()
+    assertEquals(expected.joinToString("\n"), fixture.editor.document.text)
+    val statistics = (injector.macro as VimMacroBase).lastPlaybackStatistics!!
+    assertEquals((lineCount - 2) * macro.size, statistics.keyCount)
+  }
 }
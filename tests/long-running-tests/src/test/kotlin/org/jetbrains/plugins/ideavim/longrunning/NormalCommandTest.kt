@@ -0,0 +1,48 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.longrunning
+
+import org.jetbrains.plugins.ideavim.SkipNeovimReason
+import org.jetbrains.plugins.ideavim.TestWithoutNeovim
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+
+/**
+ * `:normal` over every line of a large file
+ */
+class NormalCommandTest : VimTestCase() {
+  private val lineCount = 200_000
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test append to every line`() {
+    val lines = (0 until lineCount).map { "line $it" }
+    configureByText(lines.joinToString("\n"))
+
+    enterCommand("%norm A;")
+
+    assertEquals(lines.joinToString("\n") { "$it;" }, fixture.editor.document.text)
+    typeText("u")
+    assertEquals(lines.joinToString("\n"), fixture.editor.document.text)
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test edit every line with search highlights`() {
+    val lines = (0 until lineCount).map { "key$it value" }
+    configureByText(lines.joinToString("\n"))
+    enterCommand("set hlsearch")
+    enterSearch("value")
+
+    enterCommand("%norm wcwnew")
+
+    assertEquals(lines.joinToString("\n") { it.replace("value", "new") }, fixture.editor.document.text)
+  }
+}
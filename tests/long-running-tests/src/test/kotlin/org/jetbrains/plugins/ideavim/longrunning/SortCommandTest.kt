@@ -0,0 +1,44 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.longrunning
+
+import org.jetbrains.plugins.ideavim.SkipNeovimReason
+import org.jetbrains.plugins.ideavim.TestWithoutNeovim
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+
+class SortCommandTest : VimTestCase() {
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test numeric sort of a million lines`() {
+    val lineCount = 1_000_000
+    // 999983 is prime, so this visits every number in 0 until lineCount exactly once
+    val lines = (0 until lineCount).map { "line ${(it * 999983L) % lineCount}" }
+    configureByText(lines.joinToString("\n"))
+
+    enterCommand("sort n")
+
+    val expected = (0 until lineCount).joinToString("\n") { "line $it" }
+    assertEquals(expected, fixture.editor.document.text)
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test pattern sort of a million lines`() {
+    val lineCount = 1_000_000
+    val lines = (0 until lineCount).map { "${(it * 999983L) % lineCount},key" }
+    configureByText(lines.joinToString("\n"))
+
+    enterCommand("sort /,/ r")
+
+    // All keys are equal, so the sort is stable and the lines keep their order
+    assertEquals(lines.joinToString("\n"), fixture.editor.document.text)
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package org.jetbrains.plugins.ideavim.longrunning
+
+import org.jetbrains.plugins.ideavim.SkipNeovimReason
+import org.jetbrains.plugins.ideavim.TestWithoutNeovim
+import org.jetbrains.plugins.ideavim.VimTestCase
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+
+/**
+ * Line-oriented Ex commands on large, tab-indented files
+ *
+ * Tabs make converting an offset to a buffer position expensive, because the column is tab expanded. These commands
+ * should only need line numbers and line start offsets.
+ */
+class SubstituteCommandTest : VimTestCase() {
+  private val lineCount = 200_000
+
+  private fun tabHeavyLines() = (0 until lineCount).map { "\t\t\t\tkey$it\tx\tx\tx\tx" }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test substitute all matches in tab-indented file`() {
+    val lines = tabHeavyLines()
+    configureByText(lines.joinToString("\n"))
+
+    enterCommand("%s/x/y/g")
+
+    assertEquals(lines.joinToString("\n") { it.replace('x', 'y') }, fixture.editor.document.text)
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test count matches in tab-indented file`() {
+    val text = tabHeavyLines().joinToString("\n")
+    configureByText(text)
+
+    enterCommand("%s/x//gn")
+
+    assertStatusLineMessageContains("${lineCount * 4} matches on $lineCount lines")
+    assertEquals(text, fixture.editor.document.text)
+  }
+
+  @TestWithoutNeovim(reason = SkipNeovimReason.NOT_VIM_TESTING)
+  @Test
+  fun `test global delete in tab-indented file`() {
+    val lines = tabHeavyLines()
+    configureByText(lines.joinToString("\n"))
+
+    enterCommand("g/key\\d*5\\t/d")
+
+    assertEquals(lines.filterNot { it.contains(Regex("key\\d*5\\t")) }.joinToString("\n"), fixture.editor.document.text)
+  }
+}
@@ -34,9 +34,9 @@ repositories {
 
 ksp {
   arg("generated_directory", "$projectDir/src/main/resources/ksp-generated")
-  arg("vimscript_functions_file", "engine_vimscript_functions.json")
-  arg("ex_commands_file", "engine_ex_commands.json")
-  arg("commands_file", "engine_commands.json")
+  arg("vimscript_functions_file", "engine_vimscript_functions.txt")
+  arg("ex_commands_file", "engine_ex_commands.txt")
+  arg("commands_file", "engine_commands.txt")
   arg("extensions_file", "ideavim_extensions.json")
 }
 
@@ -286,8 +286,11 @@ class KeyHandler {
       modalEntryKeys.clear()
     }
 
-    // This will update immediately, if we're on the EDT (which we are)
-    injector.messages.updateStatusBar(editor)
+    // This will update immediately, if we're on the EDT (which we are). While replaying keys, the status bar is updated
+    // once the replay has finished
+    if (!injector.macro.isReplayingKeys) {
+      injector.messages.updateStatusBar(editor)
+    }
     logger.trace("----------- Key Handler Finished -----------")
   }
 
@@ -11,32 +11,26 @@ package com.maddyhome.idea.vim.action
 import com.maddyhome.idea.vim.action.change.LazyVimCommand
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.command.MappingMode
-import kotlinx.serialization.ExperimentalSerializationApi
-import kotlinx.serialization.Serializable
-import kotlinx.serialization.json.Json
-import kotlinx.serialization.json.decodeFromStream
+import com.maddyhome.idea.vim.helper.readRegistryFile
 import java.io.InputStream
 
 /**
- * An interface defining the contract for providers responsible for reading and parsing JSON files.
- * These files contain a list of command beans that are intended to be lazily loaded during runtime.
- * The primary functionality of this interface is to transform the JSON data into a collection of
+ * An interface defining the contract for providers responsible for reading the command registries generated by the
+ * annotation processors. Each entry is a command class with its modes and key sequences, and is intended to be lazily
+ * loaded during runtime. The primary functionality of this interface is to transform the registry into a collection of
  * {@code LazyVimCommand} instances.
  */
 interface CommandProvider {
   val commandListFileName: String
 
-  @OptIn(ExperimentalSerializationApi::class)
   fun getCommands(): Collection<LazyVimCommand> {
     val classLoader = this.javaClass.classLoader
-    val commands: List<CommandBean> = Json.decodeFromStream(getFile())
-    return commands
-      .groupBy { it.`class` }
-      .map {
-        val keys = it.value.map { bean -> injector.parser.parseKeys(bean.keys) }.toSet()
-        val modes = it.value.first().modes.map { mode -> MappingMode.parseModeChar(mode) }.toSet()
-        LazyVimCommand(keys, modes, it.key, classLoader)
-      }
+    // Each entry is the class name, the mode characters and then the key sequences
+    return readRegistryFile(getFile()).map { fields ->
+      val keys = fields.subList(2, fields.size).mapTo(mutableSetOf()) { injector.parser.parseKeys(it) }
+      val modes = fields[1].mapTo(mutableSetOf()) { mode -> MappingMode.parseModeChar(mode) }
+      LazyVimCommand(keys, modes, fields[0], classLoader)
+    }
   }
 
   private fun getFile(): InputStream {
@@ -44,6 +38,3 @@ interface CommandProvider {
       ?: throw RuntimeException("Failed to fetch ex commands from ${javaClass.name}")
   }
 }
-
-@Serializable
-data class CommandBean(val keys: String, val `class`: String, val modes: String)
@@ -9,5 +9,5 @@
 package com.maddyhome.idea.vim.action
 
 object EngineCommandProvider : CommandProvider {
-  override val commandListFileName: String = "engine_commands.json"
+  override val commandListFileName: String = "engine_commands.txt"
 }
\ No newline at end of file
@@ -166,7 +166,7 @@ fun VimEditor.normalizeOffset(offset: Int, allowEnd: Boolean = true): Int {
   if (myOffset > textLength) {
     myOffset = textLength
   }
-  val line: Int = offsetToBufferPosition(myOffset).line
+  val line: Int = offsetToBufferLine(myOffset)
   return normalizeOffset(line, myOffset, allowEnd)
 }
 
@@ -193,8 +193,7 @@ fun VimEditor.getVisualLineCount(): Int {
 }
 
 fun VimEditor.getLineStartForOffset(offset: Int): Int {
-  val pos = offsetToBufferPosition(normalizeOffset(offset, true))
-  return getLineStartOffset(pos.line)
+  return offsetToLineStartOffset(normalizeOffset(offset, true))
 }
 
 /**
@@ -204,8 +203,7 @@ fun VimEditor.getLineStartForOffset(offset: Int): Int {
  * @return The offset of the line end
  */
 fun VimEditor.getLineEndForOffset(offset: Int): Int {
-  val pos = offsetToBufferPosition(normalizeOffset(offset, true))
-  return getLineEndOffset(pos.line)
+  return getLineEndOffset(offsetToBufferLine(normalizeOffset(offset, true)))
 }
 
 /**
@@ -311,7 +309,7 @@ fun VimEditor.coerceOffset(offset: Int): Int {
  * We detect the visual header by probing which line's offsets are associated with this fold region.
  */
 fun VimFoldRegion.getVisualStartLine(editor: VimEditor): Int {
-  val startLine = editor.offsetToBufferPosition(startOffset).line
+  val startLine = editor.offsetToBufferLine(startOffset)
   val lineStart = editor.getLineStartOffset(startLine)
 
   if (startOffset > lineStart) {
@@ -12,6 +12,7 @@ import com.maddyhome.idea.vim.command.Argument
 import com.maddyhome.idea.vim.command.Command
 import com.maddyhome.idea.vim.command.OperatorArguments
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.common.TextReplacement
 import com.maddyhome.idea.vim.ex.ranges.LineRange
 import com.maddyhome.idea.vim.group.visual.VimSelection
 import com.maddyhome.idea.vim.state.mode.Mode
@@ -247,6 +248,13 @@ interface VimChangeGroup {
 
   fun insertText(editor: VimEditor, caret: VimCaret, offset: Int, str: String): VimCaret
 
+  /**
+   * Inserts text that might not be backed by a string, such as a [com.maddyhome.idea.vim.helper.RepeatedCharSequence]
+   *
+   * The text is passed to the document as it is, so a large text doesn't need to be copied into a string first.
+   */
+  fun insertText(editor: VimEditor, caret: VimCaret, offset: Int, text: CharSequence): VimCaret
+
   fun insertText(editor: VimEditor, caret: VimCaret, str: String): VimCaret
 
   fun indentMotion(
@@ -278,11 +286,15 @@ interface VimChangeGroup {
 
   fun changeNumber(editor: VimEditor, caret: VimCaret, count: Int): Boolean
 
+  /**
+   * Sorts the lines in the given range, as per `:sort`
+   *
+   * @return false if the range contains less than two lines
+   */
   fun sortRange(
     editor: VimEditor,
     caret: VimCaret,
     range: LineRange,
-    lineComparator: Comparator<String>,
     sortOptions: SortOption,
   ): Boolean
 
@@ -313,6 +325,14 @@ interface VimChangeGroup {
   fun type(vimEditor: VimEditor, context: ExecutionContext, string: String)
   fun replaceText(editor: VimEditor, caret: VimCaret, start: Int, end: Int, str: String)
 
+  /**
+   * Replaces several non-overlapping ranges of text in a single write action
+   *
+   * Each replacement is still a separate document change, see [MutableVimEditor.replaceStrings]. The change marks are
+   * set to span all replacements. Offsets are relative to the text before any replacement.
+   */
+  fun replaceTexts(editor: VimEditor, caret: VimCaret, replacements: List<TextReplacement>)
+
   enum class ChangeCaseType {
     LOWER,
     UPPER,
@@ -17,9 +17,11 @@ import com.maddyhome.idea.vim.command.MappingMode
 import com.maddyhome.idea.vim.command.OperatorArguments
 import com.maddyhome.idea.vim.common.ChangesListener
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.common.TextReplacement
 import com.maddyhome.idea.vim.diagnostic.debug
 import com.maddyhome.idea.vim.diagnostic.vimLogger
 import com.maddyhome.idea.vim.ex.ranges.LineRange
+import com.maddyhome.idea.vim.group.LineSorter
 import com.maddyhome.idea.vim.group.visual.VimSelection
 import com.maddyhome.idea.vim.handler.EditorActionHandlerBase
 import com.maddyhome.idea.vim.handler.Motion
@@ -39,8 +41,8 @@ import com.maddyhome.idea.vim.mark.VimMarkConstants.MARK_CHANGE_END
 import com.maddyhome.idea.vim.mark.VimMarkConstants.MARK_CHANGE_POS
 import com.maddyhome.idea.vim.mark.VimMarkConstants.MARK_CHANGE_START
 import com.maddyhome.idea.vim.options.helpers.KeywordOptionHelper.isKeyword
-import com.maddyhome.idea.vim.regexp.VimRegex
-import com.maddyhome.idea.vim.regexp.match.VimMatchResult
+import com.maddyhome.idea.vim.options.helpers.NrFormat
+import com.maddyhome.idea.vim.options.helpers.NrFormatsOptionHelper
 import com.maddyhome.idea.vim.register.RegisterConstants.LAST_INSERTED_TEXT_REGISTER
 import com.maddyhome.idea.vim.state.mode.CtrlXCompletionMode
 import com.maddyhome.idea.vim.state.mode.Mode
@@ -230,10 +232,14 @@ abstract class VimChangeGroupBase : VimChangeGroup {
    * @param str    The text to insert
    */
   override fun insertText(editor: VimEditor, caret: VimCaret, offset: Int, str: String): VimCaret {
+    return insertText(editor, caret, offset, str as CharSequence)
+  }
+
+  override fun insertText(editor: VimEditor, caret: VimCaret, offset: Int, text: CharSequence): VimCaret {
     injector.application.runWriteAction {
-      (editor as MutableVimEditor).insertText(caret, offset, str)
+      (editor as MutableVimEditor).insertText(caret, offset, text)
     }
-    val newCaret = caret.moveToInlayAwareOffset(offset + str.length)
+    val newCaret = caret.moveToInlayAwareOffset(offset + text.length)
 
     injector.markService.setMark(newCaret, MARK_CHANGE_POS, offset)
     return newCaret
@@ -342,26 +348,28 @@ abstract class VimChangeGroupBase : VimChangeGroup {
           val visualLine = caret.getVisualPosition().line
           val bufferLine = caret.getBufferPosition().line
           val position = editor.bufferPositionToOffset(BufferPosition(bufferLine, repeatColumn, false))
-          for (i in 0 until repeatLines) {
-            if (repeatAppend &&
-              (repeatColumn < VimMotionGroupBase.LAST_COLUMN) &&
-              (injector.engineEditorHelper.getVisualLineLength(editor, visualLine + i) < repeatColumn)
-            ) {
-              val pad = injector.engineEditorHelper.pad(editor, bufferLine + i, repeatColumn)
-              if (pad.isNotEmpty()) {
-                val offset = editor.getLineEndOffset(bufferLine + i)
-                insertText(editor, caret, offset, pad)
+          if (!replicateBlockInsert(editor, caret, bufferLine, visualLine, count, started)) {
+            for (i in 0 until repeatLines) {
+              if (repeatAppend &&
+                (repeatColumn < VimMotionGroupBase.LAST_COLUMN) &&
+                (injector.engineEditorHelper.getVisualLineLength(editor, visualLine + i) < repeatColumn)
+              ) {
+                val pad = injector.engineEditorHelper.pad(editor, bufferLine + i, repeatColumn)
+                if (pad.isNotEmpty()) {
+                  val offset = editor.getLineEndOffset(bufferLine + i)
+                  insertText(editor, caret, offset, pad)
+                }
+              }
+              val updatedCount = if (started) (if (i == 0) count else count + 1) else count
+              if (repeatColumn >= VimMotionGroupBase.LAST_COLUMN) {
+                caret.moveToOffset(injector.motion.moveCaretToLineEnd(editor, bufferLine + i, true))
+                repeatInsertText(editor, context, updatedCount)
+              } else if (injector.engineEditorHelper.getVisualLineLength(editor, visualLine + i) >= repeatColumn) {
+                val visualPosition = VimVisualPosition(visualLine + i, repeatColumn, false)
+                val inlaysCount = injector.engineEditorHelper.amountOfInlaysBeforeVisualPosition(editor, visualPosition)
+                caret.moveToVisualPosition(VimVisualPosition(visualLine + i, repeatColumn + inlaysCount, false))
+                repeatInsertText(editor, context, updatedCount)
               }
-            }
-            val updatedCount = if (started) (if (i == 0) count else count + 1) else count
-            if (repeatColumn >= VimMotionGroupBase.LAST_COLUMN) {
-              caret.moveToOffset(injector.motion.moveCaretToLineEnd(editor, bufferLine + i, true))
-              repeatInsertText(editor, context, updatedCount)
-            } else if (injector.engineEditorHelper.getVisualLineLength(editor, visualLine + i) >= repeatColumn) {
-              val visualPosition = VimVisualPosition(visualLine + i, repeatColumn, false)
-              val inlaysCount = injector.engineEditorHelper.amountOfInlaysBeforeVisualPosition(editor, visualPosition)
-              caret.moveToVisualPosition(VimVisualPosition(visualLine + i, repeatColumn + inlaysCount, false))
-              repeatInsertText(editor, context, updatedCount)
             }
           }
           caret.moveToOffset(position)
@@ -377,6 +385,70 @@ abstract class VimChangeGroupBase : VimChangeGroup {
     repeatAppend = false
   }
 
+  /**
+   * Replicates a plain text visual block insert or append to all lines of the block in a single write action
+   *
+   * The insert offsets of all lines, and the padding of short lines for an append, are calculated against the unchanged
+   * document, and then inserted together with [replaceTexts]. Replaying the insert line by line means moving the caret
+   * and running a separate change for each line, which is very slow for large blocks.
+   *
+   * Returns false without changing anything if the last insert wasn't just text, or if the lines of the block aren't
+   * one visual line each (e.g. because of folds or soft wraps). The insert must then be replayed line by line.
+   */
+  private fun replicateBlockInsert(
+    editor: VimEditor,
+    caret: VimCaret,
+    bufferLine: Int,
+    visualLine: Int,
+    count: Int,
+    started: Boolean,
+  ): Boolean {
+    val batched = batchAdjacentTextStrokes(lastStrokes ?: return false)
+    if (batched.size > 1) return false
+    val text = batched.firstOrNull()?.let { it as? String ?: return false } ?: ""
+    if (text.contains('\n')) return false
+
+    val lastLine = bufferLine + repeatLines - 1
+    if (lastLine >= editor.lineCount() || editor.bufferLineToVisualLine(lastLine) != visualLine + repeatLines - 1) {
+      return false
+    }
+
+    val replacements = ArrayList<TextReplacement>(repeatLines)
+    for (i in 0 until repeatLines) {
+      val line = bufferLine + i
+      val updatedCount = if (started) (if (i == 0) count else count + 1) else count
+      val insertedText = text.repeat(updatedCount)
+
+      val offset: Int
+      var pad = ""
+      if (repeatColumn >= VimMotionGroupBase.LAST_COLUMN) {
+        offset = injector.motion.moveCaretToLineEnd(editor, line, true)
+      } else {
+        val visualLineLength = injector.engineEditorHelper.getVisualLineLength(editor, visualLine + i)
+        if (visualLineLength >= repeatColumn) {
+          val visualPosition = VimVisualPosition(visualLine + i, repeatColumn, false)
+          val inlaysCount = injector.engineEditorHelper.amountOfInlaysBeforeVisualPosition(editor, visualPosition)
+          offset = editor.visualPositionToOffset(VimVisualPosition(visualLine + i, repeatColumn + inlaysCount, false))
+        } else if (repeatAppend) {
+          // The padded line ends at the block's column, unless it contains wide characters such as tabs
+          if (visualLineLength != editor.lineLength(line)) return false
+          pad = injector.engineEditorHelper.pad(editor, line, repeatColumn)
+          offset = editor.getLineEndOffset(line)
+        } else {
+          // Short lines are skipped by an insert
+          continue
+        }
+      }
+
+      if (pad.isNotEmpty() || insertedText.isNotEmpty()) {
+        replacements.add(TextReplacement(offset, offset, pad + insertedText))
+      }
+    }
+
+    injector.changeGroup.replaceTexts(editor, caret, replacements)
+    return true
+  }
+
   protected inner class VimChangesListener : ChangesListener {
     override fun documentChanged(change: ChangesListener.Change) {
       val newFragment = change.newFragment
@@ -1257,6 +1329,28 @@ abstract class VimChangeGroupBase : VimChangeGroup {
     injector.markService.setMark(caret, VimMarkService.LAST_CHANGE_MARK, newEnd)
   }
 
+  override fun replaceTexts(editor: VimEditor, caret: VimCaret, replacements: List<TextReplacement>) {
+    if (replacements.isEmpty()) return
+    if (replacements.size == 1) {
+      val replacement = replacements[0]
+      replaceText(editor, caret, replacement.startOffset, replacement.endOffset, replacement.text.toString())
+      return
+    }
+
+    val sorted = replacements.sortedBy { it.startOffset }
+    injector.application.runWriteAction {
+      (editor as MutableVimEditor).replaceStrings(sorted)
+    }
+
+    // The end of the last replacement is shifted by the length change of all replacements
+    val first = sorted.first()
+    val last = sorted.last()
+    val delta = sorted.sumOf { it.text.length - (it.endOffset - it.startOffset) }
+    val newEnd = last.endOffset + delta
+    injector.markService.setChangeMarks(caret, TextRange(first.startOffset, newEnd))
+    injector.markService.setMark(caret, VimMarkService.LAST_CHANGE_MARK, newEnd)
+  }
+
   /**
    * Inserts a new line above the caret position
    *
@@ -1558,18 +1652,14 @@ abstract class VimChangeGroupBase : VimChangeGroup {
   }
 
   /**
-   * Sort range of text with a given comparator
+   * Sorts the lines in the given range, as per `:sort`
    *
-   * @param editor         The editor to replace text in
-   * @param range          The range to sort
-   * @param lineComparator The comparator to use to sort
-   * @param sortOptions     The option to sort the range
-   * @return true if able to sort the text, false if not
+   * @param editor      The editor to replace text in
+   * @param range       The range to sort
+   * @param sortOptions The options of the `:sort` command
+   * @return false if the range contains less than two lines
    */
-  override fun sortRange(
-    editor: VimEditor, caret: VimCaret, range: LineRange, lineComparator: Comparator<String>,
-    sortOptions: SortOption,
-  ): Boolean {
+  override fun sortRange(editor: VimEditor, caret: VimCaret, range: LineRange, sortOptions: SortOption): Boolean {
     val startLine = range.startLine
     val endLine = range.endLine
     val count = range.size
@@ -1579,76 +1669,16 @@ abstract class VimChangeGroupBase : VimChangeGroup {
     val startOffset = editor.getLineStartOffset(startLine)
     val endOffset = editor.getLineEndOffset(endLine)
 
-    val selectedText = editor.getText(startOffset, endOffset)
-    val lines = selectedText.split("\n")
-    val modifiedLines = sortOptions.pattern?.let {
-      if (sortOptions.sortOnPattern) {
-        extractPatternFromLines(editor, lines, startLine, it)
-      } else {
-        deletePatternFromLines(editor, lines, startLine, it)
-      }
-    } ?: lines
-    val sortedLines = lines.zip(modifiedLines)
-      .sortedWith { l1, l2 -> lineComparator.compare(l1.second, l2.second) }
-      .map { it.first }
-      .toMutableList()
-
-    if (sortOptions.unique) {
-      val iterator = sortedLines.iterator()
-      var previous: String? = null
-      while (iterator.hasNext()) {
-        val current = iterator.next()
-        if (current == previous || sortOptions.ignoreCase && current.equals(previous, ignoreCase = true)) {
-          iterator.remove()
-        } else {
-          previous = current
-        }
-      }
-    }
-    if (sortedLines.isEmpty()) {
-      return false
-    }
-    replaceText(editor, caret, startOffset, endOffset, sortedLines.joinToString("\n"))
+    val sortedText = LineSorter(editor, startLine, endLine, sortOptions).sort()
+    replaceText(editor, caret, startOffset, endOffset, sortedText)
     return true
   }
 
-  private fun extractPatternFromLines(
-    editor: VimEditor,
-    lines: List<String>,
-    startLine: Int,
-    pattern: String,
-  ): List<String> {
-    val regex = VimRegex(pattern)
-    return lines.mapIndexed { i: Int, line: String ->
-      val result = regex.findInLine(editor, startLine + i, 0)
-      when (result) {
-        is VimMatchResult.Success -> result.value
-        is VimMatchResult.Failure -> line
-      }
-    }
-  }
-
-  private fun deletePatternFromLines(
-    editor: VimEditor,
-    lines: List<String>,
-    startLine: Int,
-    pattern: String,
-  ): List<String> {
-    val regex = VimRegex(pattern)
-    return lines.mapIndexed { i: Int, line: String ->
-      val result = regex.findInLine(editor, startLine + i, 0)
-      when (result) {
-        is VimMatchResult.Success -> line.substring(result.value.length, line.length)
-        is VimMatchResult.Failure -> line
-      }
-    }
-  }
-
   override fun changeNumber(editor: VimEditor, caret: VimCaret, count: Int): Boolean {
-    val nf: List<String> = injector.options(editor).nrformats
-    val alpha = nf.contains("alpha")
-    val hex = nf.contains("hex")
-    val octal = nf.contains("octal")
+    val nf = NrFormatsOptionHelper.getNrFormats(editor)
+    val alpha = nf.contains(NrFormat.ALPHA)
+    val hex = nf.contains(NrFormat.HEX)
+    val octal = nf.contains(NrFormat.OCTAL)
     val range = findNumberUnderCursor(editor, caret, alpha, hex, octal)
     if (range == null) {
       logger.debug("no number on line")
@@ -1762,24 +1792,22 @@ abstract class VimChangeGroupBase : VimChangeGroup {
     avalanche: Boolean,
   ): Boolean {
 
-    val nf: List<String> = injector.options(editor).nrformats
-    val alpha = nf.contains("alpha")
-    val hex = nf.contains("hex")
-    val octal = nf.contains("octal")
+    val nf = NrFormatsOptionHelper.getNrFormats(editor)
+    val alpha = nf.contains(NrFormat.ALPHA)
+    val hex = nf.contains(NrFormat.HEX)
+    val octal = nf.contains(NrFormat.OCTAL)
     val numberRanges = findNumbersInRange(editor, selectedRange, alpha, hex, octal)
-    val newNumbers: MutableList<String?> = ArrayList()
+
+    // Compute all new numbers against the unchanged text, then apply them together in one write action. This avoids a
+    // separate write action and change mark update for every number in the selection
+    val replacements = ArrayList<TextReplacement>(numberRanges.size)
     for (i in numberRanges.indices) {
       val numberRange = numberRanges[i]
       val iCount = if (avalanche) (i + 1) * count else count
-      val newNumber = changeNumberInRange(editor, numberRange, iCount, alpha, hex, octal)
-      newNumbers.add(newNumber)
-    }
-    for (i in newNumbers.indices.reversed()) {
-      // Replace text bottom up. In other direction ranges will be desynchronized after inc numbers like 99
-      val (first) = numberRanges[i]
-      val newNumber = newNumbers[i]
-      replaceText(editor, caret, first.startOffset, first.endOffset, newNumber!!)
+      val newNumber = changeNumberInRange(editor, numberRange, iCount, alpha, hex, octal) ?: continue
+      replacements.add(TextReplacement(numberRange.first.startOffset, numberRange.first.endOffset, newNumber))
     }
+    replaceTexts(editor, caret, replacements)
     caret.moveToInlayAwareOffset(selectedRange.startOffset)
     return true
   }
@@ -1821,7 +1849,7 @@ abstract class VimChangeGroupBase : VimChangeGroup {
       val startOffset = textRange.startOffsets[i]
       val end = textRange.endOffsets[i]
       val text: String = editor.getText(startOffset, end)
-      val textChunks = text.split("\\n".toRegex()).dropLastWhile { it.isEmpty() }.toTypedArray()
+      val textChunks = text.split('\n').dropLastWhile { it.isEmpty() }
       var chunkStart = 0
       for (chunk in textChunks) {
         val number = findNumberInText(chunk, 0, alpha, hex, octal)
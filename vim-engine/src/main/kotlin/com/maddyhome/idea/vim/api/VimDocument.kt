@@ -15,5 +15,10 @@ interface VimDocument {
   fun addChangeListener(listener: ChangesListener)
   fun removeChangeListener(listener: ChangesListener)
   fun getOffsetGuard(offset: Int): LiveRange?
+
+  /**
+   * A number that changes whenever the document is modified
+   */
+  val modificationStamp: Long
   fun getRangeGuard(start: Int, end: Int): LiveRange?
 }
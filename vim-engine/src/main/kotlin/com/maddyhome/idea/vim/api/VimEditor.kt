@@ -10,6 +10,7 @@ package com.maddyhome.idea.vim.api
 
 import com.maddyhome.idea.vim.common.LiveRange
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.common.TextReplacement
 import com.maddyhome.idea.vim.common.VimEditorReplaceMask
 import com.maddyhome.idea.vim.helper.VimLockLabel
 import com.maddyhome.idea.vim.state.mode.Mode
@@ -157,6 +158,19 @@ interface VimEditor {
   fun offsetToBufferPosition(offset: Int): BufferPosition
   fun bufferPositionToOffset(position: BufferPosition): Int
 
+  /**
+   * Returns the buffer line containing the given offset
+   *
+   * This is the same as `offsetToBufferPosition(offset).line`, but implementations can look the line up in the
+   * document's line index without calculating the (tab expanded) column. Prefer this when only the line is required.
+   */
+  fun offsetToBufferLine(offset: Int): Int = offsetToBufferPosition(offset).line
+
+  /**
+   * Returns the start offset of the buffer line containing the given offset
+   */
+  fun offsetToLineStartOffset(offset: Int): Int = getLineStartOffset(offsetToBufferLine(offset))
+
   // TODO: [visual] Try to remove these. Visual position is an IntelliJ concept and doesn't have a Vim equivalent
   fun offsetToVisualPosition(offset: Int): VimVisualPosition
   fun visualPositionToOffset(position: VimVisualPosition): Int
@@ -408,6 +422,21 @@ interface MutableVimEditor : VimEditor {
 
   @VimLockLabel.RequiresWriteLock
   fun replaceString(start: Int, end: Int, newString: String)
+
+  /**
+   * Apply a batch of non-overlapping replacements
+   *
+   * Offsets of each [TextReplacement] are relative to the document before the batch is applied. Each replacement is
+   * still a separate document change, but on IntelliJ, large batches are applied in bulk update mode, so listeners and
+   * range markers are updated once, rather than once per replacement. The default implementation simply replaces the
+   * ranges from the bottom of the document upwards, so that earlier offsets remain valid.
+   */
+  @VimLockLabel.RequiresWriteLock
+  fun replaceStrings(replacements: List<TextReplacement>) {
+    replacements.sortedByDescending { it.startOffset }.forEach {
+      replaceString(it.startOffset, it.endOffset, it.text.toString())
+    }
+  }
 }
 
 interface LinearEditor : VimEditor {
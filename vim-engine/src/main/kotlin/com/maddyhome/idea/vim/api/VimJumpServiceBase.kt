@@ -9,16 +9,17 @@
 package com.maddyhome.idea.vim.api
 
 import com.maddyhome.idea.vim.mark.Jump
+import com.maddyhome.idea.vim.mark.JumpList
 
 abstract class VimJumpServiceBase : VimJumpService {
-  protected val scopeToJumps: MutableMap<String, MutableList<Jump>> = mutableMapOf()
+  protected val scopeToJumps: MutableMap<String, JumpList> = mutableMapOf()
   protected val scopeToJumpSpot: MutableMap<String, Int> = mutableMapOf()
   private val scopesWithOwnList = mutableSetOf<String>()
 
   override fun getJump(scopeId: String, count: Int): Jump? {
     inheritProjectListIfNeeded(scopeId)
     lastJumpTimeStamp = System.currentTimeMillis() + JUMP_NAVIGATION_SUPPRESS_MS
-    val jumps = scopeToJumps[scopeId] ?: mutableListOf()
+    val jumps: List<Jump> = scopeToJumps[scopeId] ?: emptyList()
     scopeToJumpSpot.putIfAbsent(scopeId, -1)
     val index = jumps.size - 1 - (scopeToJumpSpot[scopeId]!! - count)
     return jumps.getOrNull(index)?.also {
@@ -39,16 +40,11 @@ abstract class VimJumpServiceBase : VimJumpService {
   override fun addJump(scopeId: String, jump: Jump, reset: Boolean) {
     inheritProjectListIfNeeded(scopeId)
     lastJumpTimeStamp = System.currentTimeMillis() + JUMP_NAVIGATION_SUPPRESS_MS
-    val jumps = scopeToJumps[scopeId] ?: mutableListOf()
-    jumps.removeIf { it.filepath == jump.filepath && it.line == jump.line }
-    jumps.add(jump)
+    val jumps = scopeToJumps[scopeId] ?: JumpList()
+    jumps.addJump(jump, SAVE_JUMP_COUNT)
     putAsMostRecentlyUsed(scopeId, jumps)
 
     scopeToJumpSpot[scopeId] = if (reset) -1 else (scopeToJumpSpot[scopeId] ?: -1) + 1
-
-    if (jumps.size > SAVE_JUMP_COUNT) {
-      jumps.removeFirst()
-    }
   }
 
   override fun saveJumpLocation(editor: VimEditor) {
@@ -58,11 +54,11 @@ abstract class VimJumpServiceBase : VimJumpService {
   }
 
   override fun removeJump(scopeId: String, jump: Jump) {
-    scopeToJumps[scopeId]?.removeIf { it == jump }
+    scopeToJumps[scopeId]?.removeJump(jump)
   }
 
   override fun dropLastJump(scopeId: String) {
-    scopeToJumps[scopeId]?.removeLastOrNull()
+    scopeToJumps[scopeId]?.dropLastJump()
   }
 
   override fun clearJumps(scopeId: String) {
@@ -74,7 +70,7 @@ abstract class VimJumpServiceBase : VimJumpService {
 
   override fun copyJumps(fromId: String, toId: String) {
     val jumps = scopeToJumps[fromId] ?: return
-    putAsMostRecentlyUsed(toId, jumps.toMutableList())
+    putAsMostRecentlyUsed(toId, jumps.copy())
     scopeToJumpSpot[toId] = scopeToJumpSpot[fromId] ?: -1
   }
 
@@ -82,7 +78,7 @@ abstract class VimJumpServiceBase : VimJumpService {
     if (toId in scopesWithOwnList || scopeToJumps.containsKey(toId)) return
     // An inherited empty list is the window's own list, as in Vim - not an absence to be filled in later
     scopesWithOwnList.add(toId)
-    scopeToJumps[toId] = scopeToJumps[fromId]?.toMutableList() ?: mutableListOf()
+    scopeToJumps[toId] = scopeToJumps[fromId]?.copy() ?: JumpList()
     scopeToJumpSpot[toId] = scopeToJumpSpot[fromId] ?: -1
   }
 
@@ -118,7 +114,7 @@ abstract class VimJumpServiceBase : VimJumpService {
   }
 
   /** The map iterates in this order, and the list that comes last is the one persisted for the project */
-  private fun putAsMostRecentlyUsed(scopeId: String, jumps: MutableList<Jump>) {
+  private fun putAsMostRecentlyUsed(scopeId: String, jumps: JumpList) {
     scopeToJumps.remove(scopeId)
     scopeToJumps[scopeId] = jumps
   }
@@ -198,6 +198,32 @@ abstract class VimMarkServiceBase : VimMarkService {
       .toSet()
   }
 
+  /**
+   * Calls [action] for each stored [VimMark] in the editor's file, with the caret that owns the mark, or null for a
+   * global mark
+   *
+   * Unlike [getAllMarksForFile], this doesn't copy the marks into new sets, and doesn't include the visual selection
+   * marks, which are created on demand from each caret's [SelectionInfo]. The primary caret's marks are stored per
+   * file, so they are visited once, even if the file is open in several editors.
+   */
+  private inline fun forEachStoredMark(editor: VimEditor, action: (ImmutableVimCaret?, VimMark) -> Unit) {
+    val path = editor.getPath() ?: return
+    filepathToLocalMarks[path]?.values?.forEach { mark ->
+      if (mark is VimMark && !isVisualMark(mark)) action(editor.primaryCaret(), mark)
+    }
+    for (fileEditor in injector.editorGroup.getEditors(editor.document)) {
+      for (caret in fileEditor.carets()) {
+        if (caret.isPrimary) continue
+        caret.markStorage.storedMarks.forEach { mark ->
+          if (mark is VimMark && !isVisualMark(mark)) action(caret, mark)
+        }
+      }
+    }
+    globalMarks.values.forEach { mark ->
+      if (mark is VimMark && mark.filepath == path) action(null, mark)
+    }
+  }
+
   override fun setMark(editor: VimEditor, char: Char): Boolean {
     val markChar = char.normalizeMarkChar()
     if (!markChar.isOperationValidOnMark(VimMarkService.Operation.SET, editor.primaryCaret())) return false
@@ -359,9 +385,6 @@ abstract class VimMarkServiceBase : VimMarkService {
   }
 
   override fun updateMarksFromInsert(editor: VimEditor, insertStartOffset: Int, insertLength: Int) {
-    val caretToMarks = getAllMarksForFile(editor)
-    if (caretToMarks.isEmpty()) return
-
     val insertEndOffset = insertStartOffset + insertLength
     val insStart = editor.offsetToBufferPosition(insertStartOffset)
     val insEnd = editor.offsetToBufferPosition(insertEndOffset)
@@ -369,13 +392,10 @@ abstract class VimMarkServiceBase : VimMarkService {
     val lines = insEnd.line - insStart.line
     if (lines == 0) return
 
-    for ((_, marks) in caretToMarks) {
-      for (mark in marks.filterIsInstance<VimMark>()) {
-        logger.debug { "mark = $mark" }
-        if (isVisualMark(mark)) continue
-        if (insStart.line < mark.line) {
-          mark.line = mark.line + lines
-        }
+    forEachStoredMark(editor) { _, mark ->
+      logger.debug { "mark = $mark" }
+      if (insStart.line < mark.line) {
+        mark.line = mark.line + lines
         logger.debug { "Shifting mark by $lines lines" }
       }
     }
@@ -402,46 +422,50 @@ abstract class VimMarkServiceBase : VimMarkService {
   }
 
   override fun updateMarksFromDelete(editor: VimEditor, delStartOffset: Int, delLength: Int, newLength: Int) {
-    val caretToMarks = getAllMarksForFile(editor)
-    if (caretToMarks.isEmpty()) return
-
     val delEndOffset = delStartOffset + delLength - 1
     val delStart = editor.offsetToBufferPosition(delStartOffset)
     val delEnd = editor.offsetToBufferPosition(delEndOffset + 1)
     logger.debug { "mark delete. delStart = $delStart, delEnd = $delEnd" }
 
-    for ((caret, marks) in caretToMarks) {
-      for (mark in marks.filterIsInstance<VimMark>()) {
-        if (isVisualMark(mark)) continue
-        logger.debug { "mark = $mark" }
-        if (delEnd.line < mark.line) {
-          val lines = delEnd.line - delStart.line
-          logger.debug { "Shifting mark by $lines lines" }
-          mark.line = mark.line - lines
-        } else if (delStart.line <= mark.line) {
-          val markLineStartOffset = editor.getLineStartOffset(mark.line)
-          val markLineEndOffset = editor.getLineEndOffset(mark.line, true)
-
-          val command = injector.vimState.executingCommand
-          // If text is being changed from the start of the mark line (a special case for mark deletion)
-          val changeFromMarkLineStart =
-            (command != null && command.type === Command.Type.CHANGE && delStartOffset == markLineStartOffset)
-          // If the marked line is completely within the deleted text, remove the mark (except the special case)
-          if (delStartOffset <= markLineStartOffset && delEndOffset >= markLineEndOffset && !changeFromMarkLineStart) {
-            if (caret == null) {
-              removeGlobalMark(mark.key)
-            } else {
-              injector.markService.removeLocalMark(caret, mark.key)
-            }
-            logger.debug("Removed mark")
-          } else if (delStart.line < mark.line) {
-            // shift mark
-            mark.line = delStart.line
-            logger.debug { "Shifting mark to line " + delStart.line }
-          } // The deletion only covers part of the marked line so shift the mark only if the deletion begins
-          // on a line prior to the marked line (which means the deletion must end on the marked line).
-        } // If the deleted text begins before the mark and ends after the mark then it may be shifted or deleted
+    // Marks can't be removed while we're iterating over the stored marks, so remember them and remove them afterwards
+    var removedMarks: MutableList<Pair<ImmutableVimCaret?, Char>>? = null
+    forEachStoredMark(editor) { caret, mark ->
+      // Marks before the deletion are not affected
+      if (mark.line < delStart.line) return@forEachStoredMark
+
+      logger.debug { "mark = $mark" }
+      if (delEnd.line < mark.line) {
+        val lines = delEnd.line - delStart.line
+        logger.debug { "Shifting mark by $lines lines" }
+        mark.line = mark.line - lines
+      } else {
+        val markLineStartOffset = editor.getLineStartOffset(mark.line)
+        val markLineEndOffset = editor.getLineEndOffset(mark.line, true)
+
+        val command = injector.vimState.executingCommand
+        // If text is being changed from the start of the mark line (a special case for mark deletion)
+        val changeFromMarkLineStart =
+          (command != null && command.type === Command.Type.CHANGE && delStartOffset == markLineStartOffset)
+        // If the marked line is completely within the deleted text, remove the mark (except the special case)
+        if (delStartOffset <= markLineStartOffset && delEndOffset >= markLineEndOffset && !changeFromMarkLineStart) {
+          (removedMarks ?: mutableListOf<Pair<ImmutableVimCaret?, Char>>().also { removedMarks = it })
+            .add(caret to mark.key)
+        } else if (delStart.line < mark.line) {
+          // shift mark
+          mark.line = delStart.line
+          logger.debug { "Shifting mark to line " + delStart.line }
+        } // The deletion only covers part of the marked line so shift the mark only if the deletion begins
+        // on a line prior to the marked line (which means the deletion must end on the marked line).
+      } // If the deleted text begins before the mark and ends after the mark then it may be shifted or deleted
+    }
+
+    removedMarks?.forEach { (caret, char) ->
+      if (caret == null) {
+        removeGlobalMark(char)
+      } else {
+        injector.markService.removeLocalMark(caret, char)
       }
+      logger.debug("Removed mark")
     }
 
     adjustVisualSelectionMarks(editor, delStartOffset, delEndOffset, delStart, delEnd, newLength)
@@ -734,6 +758,12 @@ class LocalMarkStorage(var caret: ImmutableVimCaret) {
     return marks.toMap()
   }
 
+  /**
+   * The stored marks, without copying. Must not be modified while iterating
+   */
+  internal val storedMarks: Collection<Mark>
+    get() = marks.values
+
   fun getMark(char: Char): Mark? {
     if (caret.isPrimary) {
       return injector.markService.getMark(caret, char)
@@ -8,12 +8,14 @@
 
 package com.maddyhome.idea.vim.api
 
+import com.maddyhome.idea.vim.diagnostic.StartupTimeRecorder
 import com.maddyhome.idea.vim.diagnostic.vimLogger
 import com.maddyhome.idea.vim.ex.ExException
 import com.maddyhome.idea.vim.ex.FinishException
 import com.maddyhome.idea.vim.history.VimHistory
 import com.maddyhome.idea.vim.register.RegisterConstants.LAST_COMMAND_REGISTER
 import com.maddyhome.idea.vim.vimscript.model.CommandLineVimLContext
+import com.maddyhome.idea.vim.vimscript.model.Executable
 import com.maddyhome.idea.vim.vimscript.model.ExecutionResult
 import com.maddyhome.idea.vim.vimscript.model.VimLContext
 import com.maddyhome.idea.vim.vimscript.model.commands.Command
@@ -38,12 +40,30 @@ abstract class VimScriptExecutorBase : VimscriptExecutor {
     skipHistory: Boolean,
     indicateErrors: Boolean,
     vimContext: VimLContext?,
+  ): ExecutionResult = execute(script, editor, context, skipHistory, indicateErrors, vimContext, isSourcedFile = false)
+
+  /**
+   * Executes [script], which is the text of a sourced file if [isSourcedFile] is true
+   *
+   * Only the text of the sourced file itself is parsed with [VimscriptParser.parseFile], and only its units are
+   * recorded as lines by [StartupTimeRecorder]. Scripts executed while the file is sourced, such as the argument of
+   * `:execute`, are parsed as usual, and their time is included in the line that executed them.
+   */
+  private fun execute(
+    script: String,
+    editor: VimEditor,
+    context: ExecutionContext,
+    skipHistory: Boolean,
+    indicateErrors: Boolean,
+    vimContext: VimLContext?,
+    isSourcedFile: Boolean,
   ): ExecutionResult {
     try {
       injector.vimscriptExecutor.executingVimscript = true
       var finalResult: ExecutionResult = ExecutionResult.Success
 
-      val myScript = injector.vimscriptParser.parse(script)
+      val parser = injector.vimscriptParser
+      val myScript = if (isSourcedFile) parser.parseFile(script) else parser.parse(script)
       myScript.units.forEach { it.vimContext = vimContext ?: myScript }
 
       // Surface syntax errors from parsing. The parser recovers from these (dropping the offending lines) instead
@@ -62,9 +82,14 @@ abstract class VimScriptExecutorBase : VimscriptExecutor {
         injector.historyGroup.addEntry(VimHistory.Type.Command, script)
       }
 
+      val unitDescriber = if (isSourcedFile) UnitDescriber(script) else null
       for (unit in myScript.units) {
         try {
-          val result = unit.execute(editor, context)
+          val result = if (unitDescriber != null) {
+            StartupTimeRecorder.measureLine({ unitDescriber.describe(unit) }) { unit.execute(editor, context) }
+          } else {
+            unit.execute(editor, context)
+          }
           if (result is ExecutionResult.Error) {
             finalResult = ExecutionResult.Error
             if (indicateErrors) {
@@ -119,7 +144,10 @@ abstract class VimScriptExecutorBase : VimscriptExecutor {
         injector.vimscriptExecutor.executingIdeaVimRcConfiguration = true
       }
       ensureFileIsSaved(file)
-      execute(file.readText(), editor, context, skipHistory = true, indicateErrors)
+      StartupTimeRecorder.measure("source ${file.pathString}") {
+        val text = file.readText()
+        execute(text, editor, context, skipHistory = true, indicateErrors, vimContext = null, isSourcedFile = true)
+      }
     } catch (e: IOException) {
       if (indicateErrors) {
         injector.messages.showErrorMessage(editor, "Cannot read file \"${file.pathString}\": ${e.message}")
@@ -138,6 +166,36 @@ abstract class VimScriptExecutorBase : VimscriptExecutor {
 
   protected abstract fun ensureFileIsSaved(file: Path)
 
+  /**
+   * Describes the units of a sourced file for startup time records, as their line number and the text of their first
+   * line
+   *
+   * Units are executed in the order they appear in the script, so the line number is counted on from the previous unit,
+   * rather than from the start of the script for every unit.
+   */
+  private class UnitDescriber(private val script: String) {
+    private var offset = 0
+    private var line = 1
+
+    fun describe(unit: Executable): String {
+      val startOffset = unit.rangeInScript.startOffset.coerceIn(0, script.length)
+      if (startOffset < offset) {
+        offset = 0
+        line = 1
+      }
+      for (i in offset until startOffset) {
+        if (script[i] == '\n') line++
+      }
+      offset = startOffset
+      val lineEnd = script.indexOf('\n', startOffset).let { if (it < 0) script.length else it }
+      return "line $line: ${script.substring(startOffset, lineEnd).trim().take(MAX_LINE_TEXT_LENGTH)}"
+    }
+  }
+
+  private companion object {
+    private const val MAX_LINE_TEXT_LENGTH = 80
+  }
+
   @Throws(ExException::class)
   override fun executeLastCommand(editor: VimEditor, context: ExecutionContext): Boolean {
     val reg = injector.registerGroup.getRegister(editor, context, ':') ?: return false
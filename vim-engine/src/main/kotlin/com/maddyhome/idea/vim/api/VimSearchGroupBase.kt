@@ -778,11 +778,11 @@ abstract class VimSearchGroupBase : VimSearchGroup {
         continue
       }
       matchCount++
-      matchedLines.add(editor.offsetToBufferPosition(match.range.startOffset).line)
+      matchedLines.add(editor.offsetToBufferLine(match.range.startOffset))
       if (doAll && match.range.startOffset != match.range.endOffset) {
-        val endPosition = editor.offsetToBufferPosition(match.range.endOffset)
-        line = endPosition.line
-        column = endPosition.column
+        // The column is a character offset into the line, not a (tab expanded) buffer column
+        line = editor.offsetToBufferLine(match.range.endOffset)
+        column = match.range.endOffset - editor.getLineStartOffset(line)
       } else {
         line++
         column = 0
@@ -954,7 +954,7 @@ abstract class VimSearchGroupBase : VimSearchGroup {
     var didReplace = false
 
     if (doReplace) {
-      val endPositionWithoutReplace = editor.offsetToBufferPosition(matchRange.endOffset)
+      val endLineWithoutReplace = editor.offsetToBufferLine(matchRange.endOffset)
 
       injector.application.runWriteAction {
         (editor as MutableVimEditor).replaceString(matchRange.startOffset, matchRange.endOffset, finalMatch)
@@ -962,14 +962,14 @@ abstract class VimSearchGroupBase : VimSearchGroup {
       collector?.add(SubstitutePreviewChange(matchRange.startOffset, finalMatch.length, originalText))
       didReplace = true
 
-      val endPositionWithReplace = editor.offsetToBufferPosition(matchRange.startOffset + finalMatch.length)
-      newLine += max(0, endPositionWithReplace.line - endPositionWithoutReplace.line)
-      newEndLine += endPositionWithReplace.line - endPositionWithoutReplace.line
+      val endLineWithReplace = editor.offsetToBufferLine(matchRange.startOffset + finalMatch.length)
+      newLine += max(0, endLineWithReplace - endLineWithoutReplace)
+      newEndLine += endLineWithReplace - endLineWithoutReplace
     }
 
     if (doAll && matchRange.startOffset != matchRange.endOffset) {
       val nextSearchOffset = if (didReplace) matchRange.startOffset + finalMatch.length else matchRange.endOffset
-      newLine = editor.offsetToBufferPosition(nextSearchOffset).line
+      newLine = editor.offsetToBufferLine(nextSearchOffset)
       newColumn = nextSearchOffset - editor.getLineStartOffset(newLine)
     } else {
       newColumn = 0
@@ -1558,7 +1558,7 @@ abstract class VimSearchGroupBase : VimSearchGroup {
 
     var res = range.startOffset
     if (offsetIsLineOffset) {
-      val line: Int = editor.offsetToBufferPosition(range.startOffset).line
+      val line: Int = editor.offsetToBufferLine(range.startOffset)
       val newLine: Int = editor.normalizeLine(line + offset)
       res = injector.motion.moveCaretToLineStart(editor, newLine)
     } else if (hasEndOffset || offset != 0) {
@@ -14,6 +14,7 @@ import com.maddyhome.idea.vim.diagnostic.vimLogger
 import com.maddyhome.idea.vim.helper.CharacterHelper
 import com.maddyhome.idea.vim.helper.CharacterHelper.charType
 import com.maddyhome.idea.vim.helper.CharacterHelper.isWhitespace
+import com.maddyhome.idea.vim.helper.LineMetadataIndex
 import com.maddyhome.idea.vim.helper.SearchOptions
 import com.maddyhome.idea.vim.helper.enumSetOf
 import com.maddyhome.idea.vim.options.helpers.KeywordOptionHelper
@@ -1024,7 +1025,7 @@ abstract class VimSearchHelperBase : VimSearchHelper {
     countCurrent: Boolean,
   ): @Range(from = 0, to = Int.MAX_VALUE.toLong()) Int? {
     // Save off the next paragraph since a paragraph is a valid sentence.
-    val lline: Int = editor.offsetToBufferPosition(start).line
+    val lline: Int = LineMetadataIndex.getInstance(editor).getLine(start)
     // For a file that ends with a new line, the next paragraph can be the empty last line that the IDE shows after
     // that new line. Vim has no such line, so clamp the offset to the last character of the file
     val np: Int = findNextParagraph(editor, lline, dir, false).let { if (it == max && max > 0) max - 1 else it }
@@ -1113,7 +1114,8 @@ abstract class VimSearchHelperBase : VimSearchHelper {
     }
 
     // Save off the next paragraph since a paragraph is a valid sentence.
-    val lline: Int = editor.offsetToBufferPosition(start).line
+    val index = LineMetadataIndex.getInstance(editor)
+    val lline: Int = index.getLine(start)
     var np: Int = findNextParagraph(editor, lline, dir, false)
 
     // Sections are also end-of-sentence markers. However, { and } in column 1 don't count.
@@ -1122,6 +1124,9 @@ abstract class VimSearchHelperBase : VimSearchHelper {
     var res: Int? = null
     var offset = start
     var found = false
+    // Bounds of the last line found to contain end-of-sentence characters, so we don't look it up for every character
+    var sentenceLineStart = -1
+    var sentenceLineEnd = -1
     // Search forward looking for a candidate end-of-sentence character (., !, or ?)
     while (offset >= 0 && offset < max && !found) {
       var ch = chars[offset]
@@ -1209,6 +1214,18 @@ abstract class VimSearchHelperBase : VimSearchHelper {
       } else if (ch == '\u000C') {
         res = offset
         found = true
+      } else if (offset !in sentenceLineStart until sentenceLineEnd) {
+        // An ordinary character. If the rest of the line can't end a sentence, jump to the last character before the
+        // new line (or the first character of the line when searching backwards)
+        val line = index.getLine(offset)
+        val lineStart = index.getLineStartOffset(line)
+        val lineEnd = if (line + 1 < index.size) index.getLineStartOffset(line + 1) - 1 else max
+        if (index.hasSentenceEndChars(line)) {
+          sentenceLineStart = lineStart
+          sentenceLineEnd = lineEnd
+        } else {
+          offset = if (dir == Direction.FORWARDS) lineEnd - 1 else lineStart
+        }
       }
       offset += dir.toInt()
     }
@@ -1612,12 +1629,10 @@ abstract class VimSearchHelperBase : VimSearchHelper {
     direction: Direction,
     allowBlanks: Boolean,
   ): @Range(from = 0, to = Int.MAX_VALUE.toLong()) Int? {
-    var line = skipEmptyLines(editor, startLine, direction, allowBlanks)
-    while (line in 0 until editor.nativeLineCount()) {
-      if (editor.isLineEmpty(line, allowBlanks)) return line
-      line += direction.toInt()
-    }
-    return null
+    val line = skipEmptyLines(editor, startLine, direction, allowBlanks)
+    if (line !in 0 until editor.nativeLineCount()) return null
+    return LineMetadataIndex.getInstance(editor).findEmptyLine(line, direction, allowBlanks)
+      ?.takeIf { it < editor.nativeLineCount() }
   }
 
   /**
@@ -1636,12 +1651,9 @@ abstract class VimSearchHelperBase : VimSearchHelper {
     direction: Direction,
     allowBlanks: Boolean,
   ): @Range(from = 0, to = Int.MAX_VALUE.toLong()) Int {
-    var i = startLine
-    while (i in 0 until editor.nativeLineCount()) {
-      if (!editor.isLineEmpty(i, allowBlanks)) break
-      i += direction.toInt()
-    }
-    return i
+    if (startLine !in 0 until editor.nativeLineCount()) return startLine
+    return LineMetadataIndex.getInstance(editor).findNonEmptyLine(startLine, direction, allowBlanks)
+      .coerceAtMost(editor.nativeLineCount())
   }
 
   override fun findWordObject(
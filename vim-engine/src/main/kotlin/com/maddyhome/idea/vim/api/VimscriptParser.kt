@@ -34,6 +34,15 @@ interface VimscriptParser {
   val exCommands: ExCommandTree
 
   fun parse(script: String): Script
+
+  /**
+   * Parses the text of a sourced file, such as `~/.ideavimrc`
+   *
+   * Unlike [parse], this may reuse the error recovery of a previous startup if the file has syntax errors and hasn't
+   * changed since. Text that is only executed while sourcing a file, such as the argument of `:execute`, is parsed
+   * with [parse].
+   */
+  fun parseFile(script: String): Script = parse(script)
   fun parseLetCommand(text: String): Command?
   fun parseCommand(command: String): Command?
   fun parseExpression(expression: String): Expression?
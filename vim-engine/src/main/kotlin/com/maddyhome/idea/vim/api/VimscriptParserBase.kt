@@ -18,6 +18,8 @@ import com.maddyhome.idea.vim.vimscript.model.commands.ExCommandProvider
 import com.maddyhome.idea.vim.vimscript.model.commands.ExCommandTree
 import com.maddyhome.idea.vim.vimscript.model.expressions.Expression
 import com.maddyhome.idea.vim.vimscript.parser.DeletionInfo
+import com.maddyhome.idea.vim.vimscript.parser.ScriptRecovery
+import com.maddyhome.idea.vim.vimscript.parser.ScriptRecoveryCache
 import com.maddyhome.idea.vim.vimscript.parser.errors.IdeavimErrorListener
 import com.maddyhome.idea.vim.vimscript.parser.visitors.CommandVisitor
 import com.maddyhome.idea.vim.vimscript.parser.visitors.ExpressionVisitor
@@ -38,6 +40,12 @@ abstract class VimscriptParserBase : com.maddyhome.idea.vim.api.VimscriptParser
   override val lastParseErrors: MutableList<String> = mutableListOf()
   private var tries = 0
   private var deletionInfo: DeletionInfo = DeletionInfo()
+  private var lastRecovery: ScriptRecovery? = null
+
+  /**
+   * Cache of error recoveries for sourced files with syntax errors, or null to always recover from scratch
+   */
+  protected open val recoveryCache: ScriptRecoveryCache? = null
   protected open val commandProviders: List<ExCommandProvider> = listOf(EngineExCommandProvider)
   override val exCommands: ExCommandTree by lazy {
     val commandTree = ExCommandTree()
@@ -45,7 +53,22 @@ abstract class VimscriptParserBase : com.maddyhome.idea.vim.api.VimscriptParser
     commandTree
   }
 
-  override fun parse(script: String): Script {
+  override fun parse(script: String): Script = parseAndRecover(script)
+
+  override fun parseFile(script: String): Script {
+    val cache = recoveryCache ?: return parseAndRecover(script)
+
+    cache.get(script)?.let { recovery ->
+      parseRecovered(recovery)?.let { return it }
+    }
+    lastRecovery = null
+    val result = parseAndRecover(script)
+    lastRecovery?.let { cache.put(script, it) }
+    lastRecovery = null
+    return result
+  }
+
+  private fun parseAndRecover(script: String): Script {
     val preprocessedText = uncommentIdeaVimIgnore(getTextWithoutErrors(script))
     linesWithErrors.clear()
     errorMessages.clear()
@@ -65,9 +88,13 @@ abstract class VimscriptParserBase : com.maddyhome.idea.vim.api.VimscriptParser
         return Script(listOf())
       } else {
         tries += 1
-        parse(preprocessedText)
+        parseAndRecover(preprocessedText)
       }
     } else {
+      if (tries > 0) {
+        val deletions = deletionInfo.registeredDeletions.toList()
+        lastRecovery = ScriptRecovery(preprocessedText, deletions, lastParseErrors.toList())
+      }
       ScriptVisitor.visit(AST)
     }
     script.units.forEach { it.restoreOriginalRange(deletionInfo) }
@@ -75,6 +102,30 @@ abstract class VimscriptParserBase : com.maddyhome.idea.vim.api.VimscriptParser
     return script
   }
 
+  /**
+   * Parses the text of a cached error recovery in a single pass, or returns null if it still has errors
+   */
+  private fun parseRecovered(recovery: ScriptRecovery): Script? {
+    linesWithErrors.clear()
+    errorMessages.clear()
+    val parser = getParser(addNewlineIfMissing(recovery.text), true)
+    val AST: ParseTree = parser.script()
+    if (linesWithErrors.isNotEmpty()) {
+      resetParser()
+      return null
+    }
+    logger.info("Parsed a script using the cached recovery of ${recovery.errors.size} syntax errors")
+    // The error listener isn't called for the recovered text, so log the errors it would have reported
+    recovery.errors.forEach { logger.warn(it) }
+    lastParseErrors.clear()
+    lastParseErrors.addAll(recovery.errors)
+    recovery.deletions.forEach { (offset, length) -> deletionInfo.registerDeletion(offset, length) }
+    val script = ScriptVisitor.visit(AST)
+    script.units.forEach { it.restoreOriginalRange(deletionInfo) }
+    resetParser()
+    return script
+  }
+
   override fun parseExpression(expression: String): Expression? {
     val parser = getParser(expression, true)
     val AST: ParseTree = parser.expr()
@@ -21,6 +21,7 @@ import com.maddyhome.idea.vim.handler.TextObjectActionHandler
 import com.maddyhome.idea.vim.helper.StrictMode
 import com.maddyhome.idea.vim.helper.noneOfEnum
 import com.maddyhome.idea.vim.key.KeyStrokeTrie
+import com.maddyhome.idea.vim.key.KeyStrokeTrieCursor
 import com.maddyhome.idea.vim.state.mode.SelectionType
 import org.jetbrains.annotations.TestOnly
 import javax.swing.KeyStroke
@@ -35,6 +36,9 @@ class CommandBuilder private constructor(
   constructor(keyStrokeTrie: KeyStrokeTrie<LazyVimCommand>, initialUncommittedRawCount: Int = 0)
     : this(keyStrokeTrie, mutableListOf(initialUncommittedRawCount), mutableListOf(), mutableListOf())
 
+  // The trie node for the current command keys, so each new key only needs a single child lookup
+  private val trieCursor = KeyStrokeTrieCursor<LazyVimCommand>()
+
   private var commandState: CurrentCommandState = CurrentCommandState.NEW_COMMAND
   private var selectedRegister: Char? = null
   private var action: EditorActionHandlerBase? = null
@@ -286,10 +290,10 @@ class CommandBuilder private constructor(
    */
   fun processKey(key: KeyStroke, processor: (EditorActionHandlerBase) -> Unit): Boolean {
     commandKeyStrokes.add(key)
-    val node = keyStrokeTrie.getTrieNode(commandKeyStrokes)
+    val node = trieCursor.getNode(keyStrokeTrie, commandKeyStrokes)
     if (node == null) {
       logger.trace { "No command or part command for key sequence: ${injector.parser.toPrintableString(commandKeyStrokes)}" }
-      commandKeyStrokes.clear()
+      clearCommandKeyStrokes()
       return false
     }
 
@@ -314,12 +318,17 @@ class CommandBuilder private constructor(
     }
     else {
       logger.trace { "Found command ${command.instance} for ${injector.parser.toPrintableString(commandKeyStrokes)} - ${node.debugString}" }
-      commandKeyStrokes.clear()
+      clearCommandKeyStrokes()
     }
     processor(command.instance)
     return true
   }
 
+  private fun clearCommandKeyStrokes() {
+    commandKeyStrokes.clear()
+    trieCursor.reset()
+  }
+
   /**
    * Map a keystroke that duplicates an operator into the `_` "current line" motion
    *
@@ -351,7 +360,8 @@ class CommandBuilder private constructor(
     //   Similarly, nmap <C-W>a <C-W>s should not try to map the second <C-W> in <C-W><C-W>
     // Note that we might still be at RootNode if we're handling a prefix, because we might be buffering keys until we
     // get a match. This means we'll still process the rest of the keys of the prefix.
-    val isMultikey = commandKeyStrokes.isNotEmpty() && keyStrokeTrie.isPrefix(commandKeyStrokes)
+    val isMultikey = commandKeyStrokes.isNotEmpty()
+      && trieCursor.getNode(keyStrokeTrie, commandKeyStrokes)?.hasChildren == true
     logger.debug { "Building multikey command: $commandKeyStrokes" }
     return isMultikey
   }
@@ -372,7 +382,7 @@ class CommandBuilder private constructor(
     logger.trace("resetAll is executed")
     this.keyStrokeTrie = keyStrokeTrie
     commandState = CurrentCommandState.NEW_COMMAND
-    commandKeyStrokes.clear()
+    clearCommandKeyStrokes()
     counts.clear()
     counts.add(0)
     isRegisterPending = false
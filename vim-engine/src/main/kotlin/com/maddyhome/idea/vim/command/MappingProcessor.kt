@@ -150,11 +150,7 @@ internal object MappingProcessor : KeyConsumer {
     // If the current sequence, with the current key, is a prefix to one or more mappings, then it's unfinished. A
     // completed sequence is not a prefix to itself - this function will return false unless it's also a prefix for
     // other mappings.
-    if (!mapping.isPrefix(
-        keyProcessResultBuilder.state.mappingState.keys as? List<KeyStroke>
-          ?: keyProcessResultBuilder.state.mappingState.keys.toList()
-      )
-    ) {
+    if (!keyProcessResultBuilder.state.mappingState.isPrefix(mapping)) {
       log.debug("There are no mappings that start with the current sequence. Mapping processor will not handle further.")
       return false
     }
@@ -212,7 +208,7 @@ internal object MappingProcessor : KeyConsumer {
     log.trace("Try processing complete mapping sequence...")
 
     val mappingState = keyProcessResultBuilder.state.mappingState
-    val mappingInfo = mapping[mappingState.keys as? List<KeyStroke> ?: mappingState.keys.toList()]
+    val mappingInfo = mappingState.getMappingInfo(mapping)
     if (mappingInfo == null) {
       log.trace("Cannot find any mapping info for the sequence. Mapping processor will not handle further.")
       return false
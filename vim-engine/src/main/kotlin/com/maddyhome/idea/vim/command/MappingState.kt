@@ -12,6 +12,9 @@ import com.maddyhome.idea.vim.api.globalOptions
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.diagnostic.trace
 import com.maddyhome.idea.vim.diagnostic.vimLogger
+import com.maddyhome.idea.vim.key.KeyMapping
+import com.maddyhome.idea.vim.key.KeyStrokeTrieCursor
+import com.maddyhome.idea.vim.key.MappingInfo
 import java.awt.event.ActionListener
 import javax.swing.KeyStroke
 import javax.swing.Timer
@@ -46,6 +49,10 @@ class MappingState : Cloneable {
   private var timer = VimTimer(injector.globalOptions().timeoutlen)
   private var keyList = mutableListOf<KeyStroke>()
 
+  // The trie node for the current keys, so each new key only needs a single child lookup. Not part of the state's
+  // identity - it can always be recalculated from the keys
+  private val mappingCursor = KeyStrokeTrieCursor<MappingInfo>()
+
   init {
     timer.isRepeats = false
   }
@@ -67,9 +74,22 @@ class MappingState : Cloneable {
     keyList.add(key)
   }
 
+  /**
+   * Returns true if the current keys are a prefix of a longer sequence in the given mapping
+   */
+  internal fun isPrefix(mapping: KeyMapping): Boolean =
+    mapping.isPrefix(keyList, mapping.getTrieNode(keyList, mappingCursor))
+
+  /**
+   * Returns the mapping for the current keys, if any
+   */
+  internal fun getMappingInfo(mapping: KeyMapping): MappingInfo? =
+    mapping.get(keyList, mapping.getTrieNode(keyList, mappingCursor))
+
   fun detachKeys(): List<KeyStroke> {
     val currentKeys = keyList
     keyList = mutableListOf()
+    mappingCursor.reset()
     return currentKeys
   }
 
@@ -77,6 +97,7 @@ class MappingState : Cloneable {
     LOG.trace("Reset mapping sequence")
     stopMappingTimer()
     keyList.clear()
+    mappingCursor.reset()
     // NOTE: We intentionally don't reset mapping mode here
   }
 
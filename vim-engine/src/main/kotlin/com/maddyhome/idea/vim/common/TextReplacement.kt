@@ -0,0 +1,17 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.common
+
+/**
+ * A single replacement in a batch of document changes
+ *
+ * The offsets are relative to the document before any replacement in the batch is applied. An empty range is an
+ * insertion, and an empty [text] is a deletion.
+ */
+data class TextReplacement(val startOffset: Int, val endOffset: Int, val text: CharSequence)
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.diagnostic
+
+import kotlinx.serialization.Serializable
+import java.lang.management.ManagementFactory
+
+/**
+ * Records how long the phases of IdeaVim startup take, similar to Vim's `--startuptime`
+ *
+ * Recording starts with [recordStartup], which wraps plugin activation. While it's active, [measure] records nested
+ * phases, such as registering commands, sourcing `~/.ideavimrc` and initialising extensions, and [measureLine] records
+ * each line executed by a sourced file. Outside of [recordStartup], or on other threads, these functions just run the
+ * given action.
+ *
+ * Each record has the time it started, relative to the start of recording, its duration and, if the JVM supports it,
+ * the number of bytes allocated by the thread. Durations and allocations of nested records are included in their
+ * parent. The records are shown with `:ideavimstartuptime`.
+ */
+object StartupTimeRecorder {
+  enum class Kind { PHASE, LINE }
+
+  /**
+   * A recorded phase or vimrc line
+   *
+   * [allocatedBytes] is -1 if the JVM can't report allocations per thread.
+   */
+  @Serializable
+  data class Entry(
+    val kind: Kind,
+    val name: String,
+    val depth: Int,
+    val startNanos: Long,
+    val durationNanos: Long,
+    val allocatedBytes: Long,
+  )
+
+  private val threadBean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+
+  private var recordingThread: Thread? = null
+  private var recordingStart = 0L
+  private var depth = 0
+  private var records: MutableList<Entry?> = mutableListOf()
+  private var lastRecords: List<Entry> = emptyList()
+
+  /**
+   * The records of the last startup, in the order the phases started
+   */
+  val entries: List<Entry>
+    get() = lastRecords
+
+  val isRecording: Boolean
+    get() = recordingThread === Thread.currentThread()
+
+  /**
+   * Records [action] as the root phase of startup, replacing the records of any previous startup
+   */
+  fun <T> recordStartup(name: String, action: () -> T): T {
+    if (recordingThread != null) return measure(name, action)
+
+    recordingThread = Thread.currentThread()
+    recordingStart = System.nanoTime()
+    records = mutableListOf()
+    try {
+      return measure(name, action)
+    } finally {
+      recordingThread = null
+      lastRecords = records.filterNotNull()
+    }
+  }
+
+  /**
+   * Records [action] as a phase of startup, if startup is being recorded on this thread
+   */
+  fun <T> measure(name: String, action: () -> T): T = measure(Kind.PHASE, { name }, action)
+
+  /**
+   * Records [action] as the execution of a line from a sourced file, if startup is being recorded on this thread
+   *
+   * The name is only created if the line is recorded.
+   */
+  fun <T> measureLine(name: () -> String, action: () -> T): T = measure(Kind.LINE, name, action)
+
+  private inline fun <T> measure(kind: Kind, name: () -> String, action: () -> T): T {
+    if (!isRecording) return action()
+
+    val index = records.size
+    records.add(null)
+    val entryDepth = depth++
+    val startBytes = allocatedBytes()
+    val start = System.nanoTime()
+    try {
+      return action()
+    } finally {
+      val duration = System.nanoTime() - start
+      val allocated = if (startBytes < 0) -1 else allocatedBytes() - startBytes
+      depth--
+      records[index] = Entry(kind, name(), entryDepth, start - recordingStart, duration, allocated)
+    }
+  }
+
+  private fun allocatedBytes(): Long {
+    val bean = threadBean ?: return -1
+    return if (bean.isThreadAllocatedMemorySupported && bean.isThreadAllocatedMemoryEnabled) {
+      bean.currentThreadAllocatedBytes
+    } else {
+      -1
+    }
+  }
+}
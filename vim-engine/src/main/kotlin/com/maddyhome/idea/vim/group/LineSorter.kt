@@ -0,0 +1,181 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.group
+
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.regexp.VimRegex
+import com.maddyhome.idea.vim.regexp.match.VimMatchResult
+import com.maddyhome.idea.vim.vimscript.model.commands.SortOption
+import java.util.*
+import kotlin.math.min
+
+/**
+ * Sorts a range of lines for `:sort`
+ *
+ * The sort key of each line is computed once, before sorting, rather than on every comparison. Lines are represented
+ * by their start and end offsets in the editor's text, numeric keys are stored as primitive longs, and the lines are
+ * sorted as an array of indexes with a stable merge sort. The sorted text is returned as a single string, so the caller
+ * can replace the whole range with one edit.
+ *
+ * If a pattern is given, the key is the text after the first match in the line, or the matched text itself if
+ * [SortOption.sortOnPattern] is set. Lines without a match use the whole line as the key. Matches for all lines are
+ * found with a single forward pass of the regex over the range.
+ */
+internal class LineSorter(
+  private val editor: VimEditor,
+  private val startLine: Int,
+  private val endLine: Int,
+  private val options: SortOption,
+) {
+  private val text = editor.text()
+  private val count = endLine - startLine + 1
+  private val lineStarts = IntArray(count)
+  private val lineEnds = IntArray(count)
+  private val keyStarts = IntArray(count)
+  private val keyEnds = IntArray(count)
+
+  // Only used for numeric sort. Lines without a number are sorted before all lines with a number
+  private val hasNumber = BooleanArray(if (options.numeric) count else 0)
+  private val numbers = LongArray(if (options.numeric) count else 0)
+
+  // Only used for textual comparisons. With numeric sort, only lines without a number need a string key
+  private val stringKeys = arrayOfNulls<String>(count)
+
+  /**
+   * Returns the sorted lines, joined with new line characters
+   */
+  fun sort(): String {
+    initLines()
+    options.pattern?.let { findPatternKeys(it) }
+    initKeys()
+
+    val order = IntArray(count) { it }
+    mergeSort(order, IntArray(count), 0, count)
+
+    val result = StringBuilder(lineEnds[count - 1] - lineStarts[0])
+    var previous = -1
+    for (index in order) {
+      if (options.unique && previous != -1 && linesEqual(previous, index)) continue
+      if (previous != -1) result.append('\n')
+      result.append(text, lineStarts[index], lineEnds[index])
+      previous = index
+    }
+    return result.toString()
+  }
+
+  private fun initLines() {
+    var offset = editor.getLineStartOffset(startLine)
+    val endOffset = editor.getLineEndOffset(endLine)
+    for (i in 0 until count) {
+      lineStarts[i] = offset
+      val newLine = text.indexOfOrNull('\n', offset, endOffset) ?: endOffset
+      lineEnds[i] = newLine
+      keyStarts[i] = offset
+      keyEnds[i] = newLine
+      offset = newLine + 1
+    }
+  }
+
+  private fun findPatternKeys(pattern: String) {
+    val regex = VimRegex(pattern)
+    val endOffset = lineEnds[count - 1]
+    var line = 0
+    while (line < count) {
+      // The regex searches forwards from the start of the line, and might match on a later line. In which case, all
+      // the lines in between don't have a match, and we can continue from the line after the match.
+      val result = regex.findInLine(editor, startLine + line, 0)
+      if (result !is VimMatchResult.Success) break
+      val matchStart = result.range.startOffset
+      if (matchStart > endOffset) break
+
+      val matchLine = findLineIndex(matchStart, line)
+      val matchEnd = min(result.range.endOffset, lineEnds[matchLine])
+      if (options.sortOnPattern) {
+        keyStarts[matchLine] = matchStart
+        keyEnds[matchLine] = matchEnd
+      } else {
+        keyStarts[matchLine] = matchEnd
+      }
+      line = matchLine + 1
+    }
+  }
+
+  private fun findLineIndex(offset: Int, fromLine: Int): Int {
+    val index = Arrays.binarySearch(lineStarts, fromLine, count, offset)
+    return if (index >= 0) index else -index - 2
+  }
+
+  private fun initKeys() {
+    for (i in 0 until count) {
+      if (options.numeric) {
+        parseNumber(i)
+        if (hasNumber[i]) continue
+      }
+      val key = text.substring(keyStarts[i], keyEnds[i])
+      stringKeys[i] = if (options.ignoreCase) key.uppercase(Locale.getDefault()) else key
+    }
+  }
+
+  /**
+   * Finds the first sequence of decimal digits in the key. Numbers too large for a long are clamped
+   */
+  private fun parseNumber(i: Int) {
+    var offset = keyStarts[i]
+    val end = keyEnds[i]
+    while (offset < end && text[offset] !in '0'..'9') offset++
+    if (offset == end) return
+
+    var number = 0L
+    while (offset < end && text[offset] in '0'..'9') {
+      val digit = text[offset] - '0'
+      number = if (number > (Long.MAX_VALUE - digit) / 10) Long.MAX_VALUE else number * 10 + digit
+      offset++
+    }
+    hasNumber[i] = true
+    numbers[i] = number
+  }
+
+  private fun compare(a: Int, b: Int): Int {
+    // Reverse sort compares the other way round, but remains stable, so equal keys keep their original order
+    val i = if (options.reverse) b else a
+    val j = if (options.reverse) a else b
+    if (options.numeric) {
+      if (hasNumber[i] != hasNumber[j]) return if (hasNumber[i]) 1 else -1
+      if (hasNumber[i]) return numbers[i].compareTo(numbers[j])
+    }
+    return stringKeys[i]!!.compareTo(stringKeys[j]!!)
+  }
+
+  private fun mergeSort(order: IntArray, buffer: IntArray, from: Int, to: Int) {
+    if (to - from < 2) return
+    val mid = (from + to) ushr 1
+    mergeSort(order, buffer, from, mid)
+    mergeSort(order, buffer, mid, to)
+    if (compare(order[mid - 1], order[mid]) <= 0) return
+
+    System.arraycopy(order, from, buffer, from, to - from)
+    var left = from
+    var right = mid
+    var target = from
+    while (left < mid && right < to) {
+      order[target++] = if (compare(buffer[right], buffer[left]) < 0) buffer[right++] else buffer[left++]
+    }
+    while (left < mid) order[target++] = buffer[left++]
+    while (right < to) order[target++] = buffer[right++]
+  }
+
+  private fun linesEqual(a: Int, b: Int): Boolean {
+    val length = lineEnds[a] - lineStarts[a]
+    if (length != lineEnds[b] - lineStarts[b]) return false
+    for (k in 0 until length) {
+      if (!text[lineStarts[a] + k].equals(text[lineStarts[b] + k], options.ignoreCase)) return false
+    }
+    return true
+  }
+}
@@ -12,9 +12,9 @@ import com.maddyhome.idea.vim.api.ImmutableVimCaret
 import com.maddyhome.idea.vim.api.VimEditor
 import com.maddyhome.idea.vim.api.getLineStartForOffset
 import com.maddyhome.idea.vim.api.injector
-import com.maddyhome.idea.vim.api.options
 import com.maddyhome.idea.vim.common.Direction
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.options.helpers.MatchPairsOptionHelper
 import kotlin.math.max
 
 const val BLOCK_CHARS: String = "{}()[]<>"
@@ -129,27 +129,19 @@ fun findMatchingPairOnCurrentLine(editor: VimEditor, caret: ImmutableVimCaret):
   }
 
   val chars = editor.text()
-  val charPairs = parsMatchPairsOption(editor)
+  val matchPairs = MatchPairsOptionHelper.getMatchPairs(editor)
 
-  val pairChars = charPairs.keys + charPairs.values
-  if (!pairChars.contains(chars[pos])) {
-    pos = chars.indexOfAnyOrNull(pairChars.toCharArray(), pos, lineEnd, null) ?: return null
+  if (!matchPairs.isPairChar(chars[pos])) {
+    pos = chars.indexOfAnyOrNull(matchPairs.allChars, pos, lineEnd, null) ?: return null
   }
 
   val charToMatch = chars[pos]
-  // TODO [vakhitov] should I implement BiMap for IdeaVim?
-  val pairChar = charPairs[charToMatch] ?: charPairs.entries.first { it.value == charToMatch }.key
-  val direction = if (charPairs.contains(charToMatch)) Direction.FORWARDS else Direction.BACKWARDS
+  val pairChar = matchPairs.getMatchingChar(charToMatch) ?: return null
+  val direction = if (matchPairs.isOpenChar(charToMatch)) Direction.FORWARDS else Direction.BACKWARDS
 
   return findMatchingChar(editor, pos, charToMatch, pairChar, direction)
 }
 
-private fun parsMatchPairsOption(editor: VimEditor): Map<Char, Char> {
-  return injector.options(editor).matchpairs
-    .filter { it.length == 3 }
-    .associate { it[0] to it[2] }
-}
-
 /**
  * Our implementation differs from the Vim one, but it is more consistent and uses the power of IDE.
  * We don't just count for opening and closing braces till their number will be equal, but keep context in mind.
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.helper
+
+import com.maddyhome.idea.vim.api.Key
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.getOrPutBufferData
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.common.Direction
+
+/**
+ * Per-document index of line start offsets and simple line metadata, used by paragraph and sentence motions
+ *
+ * Motions such as `}`, `)`, `ap` and `is` repeatedly need to know if a line is empty or blank, and where the next empty
+ * line is. Answering that by converting offsets to positions and scanning the text for every line makes large counts or
+ * large files quadratic. Instead, the index keeps, for each line, its start offset and a set of flags, so a motion only
+ * looks at the lines it moves over. It is stored with the buffer.
+ *
+ * The index is maintained incrementally. Each document change is passed to [documentChanged], which only widens the
+ * range of lines that need to be scanned again. The next [getInstance] rescans just those lines. The start offsets of
+ * the lines after them are shifted lazily, so consecutive edits close to each other don't touch the rest of the file.
+ * If a change is missed, which is detected with the document's modification stamp, the index is rebuilt from the text.
+ *
+ * Use [getInstance] to get an up-to-date index for an editor.
+ */
+class LineMetadataIndex internal constructor() {
+  private var lineCount = 0
+  private var lineStarts = IntArray(0)
+  private var flags = ByteArray(0)
+  private var isBuilt = false
+  private var modificationStamp = 0L
+
+  // The start offsets of lines from shiftFromLine onwards are stored without shiftDelta, which is added when they are
+  // read. This allows the lines after an edit to be moved without updating all of them
+  private var shiftFromLine = 0
+  private var shiftDelta = 0
+
+  // The lines changed since the index was last updated, from dirtyStartLine until before dirtyEndLine. Offsets and line
+  // numbers are those of the index, i.e. from before the changes. The text of the range has changed in length by
+  // dirtyDelta. If dirtyEndLine is 0, there are no changes
+  private var dirtyStartLine = 0
+  private var dirtyEndLine = 0
+  private var dirtyDelta = 0
+
+  val size: Int
+    get() = lineCount
+
+  fun getLineStartOffset(line: Int): Int = lineStarts[line] + if (line >= shiftFromLine) shiftDelta else 0
+
+  /**
+   * Returns the line containing the given offset. The offset at the end of the text is part of the last line
+   */
+  fun getLine(offset: Int): Int {
+    var low = 0
+    var high = lineCount - 1
+    while (low < high) {
+      val mid = (low + high + 1) ushr 1
+      if (getLineStartOffset(mid) <= offset) low = mid else high = mid - 1
+    }
+    return low
+  }
+
+  /**
+   * Returns true if the line is empty, or if [allowBlanks] is set, contains only whitespace
+   *
+   * This matches [com.maddyhome.idea.vim.api.isLineEmpty]. Note that a whitespace-only line at the end of the file,
+   * without a trailing new line character, is not considered blank.
+   */
+  fun isLineEmpty(line: Int, allowBlanks: Boolean): Boolean {
+    if (line >= lineCount) return true
+    return flags[line].toInt() and (if (allowBlanks) BLANK else EMPTY) != 0
+  }
+
+  /**
+   * Returns true if the line contains a character that can end a sentence (`.`, `!`, `?`) or a form feed
+   */
+  fun hasSentenceEndChars(line: Int): Boolean = flags[line].toInt() and SENTENCE_END != 0
+
+  /**
+   * Returns the first empty (or blank) line in the given direction, including [startLine], or null if there isn't one
+   */
+  fun findEmptyLine(startLine: Int, direction: Direction, allowBlanks: Boolean): Int? {
+    val flag = if (allowBlanks) BLANK else EMPTY
+    if (direction == Direction.FORWARDS) {
+      for (line in startLine.coerceAtLeast(0) until lineCount) {
+        if (flags[line].toInt() and flag != 0) return line
+      }
+    } else {
+      for (line in startLine.coerceAtMost(lineCount - 1) downTo 0) {
+        if (flags[line].toInt() and flag != 0) return line
+      }
+    }
+    return null
+  }
+
+  /**
+   * Returns the first line in the given direction, including [startLine], that is not empty (or blank)
+   *
+   * If there is no such line, [size] is returned for [Direction.FORWARDS] and -1 for [Direction.BACKWARDS].
+   */
+  fun findNonEmptyLine(startLine: Int, direction: Direction, allowBlanks: Boolean): Int {
+    val step = direction.toInt()
+    var line = startLine
+    while (line in 0 until lineCount && isLineEmpty(line, allowBlanks)) {
+      line += step
+    }
+    return line
+  }
+
+  /**
+   * Records a change to the document, to be applied by the next [update]
+   *
+   * This only finds the lines affected by the change, so it's cheap enough to call for every change. If
+   * [oldModificationStamp] shows that an earlier change was missed, the index is rebuilt by the next [update] instead.
+   */
+  internal fun documentChanged(
+    offset: Int,
+    oldLength: Int,
+    newLength: Int,
+    oldModificationStamp: Long,
+    newModificationStamp: Long,
+  ) {
+    if (!isBuilt) return
+    if (oldModificationStamp != modificationStamp) {
+      isBuilt = false
+      return
+    }
+
+    val firstLine = getIndexLine(offset, isEnd = false)
+    val lastLine = getIndexLine(offset + oldLength, isEnd = true)
+    if (dirtyEndLine == 0) {
+      dirtyStartLine = firstLine
+      dirtyEndLine = lastLine + 1
+    } else {
+      dirtyStartLine = minOf(dirtyStartLine, firstLine)
+      dirtyEndLine = maxOf(dirtyEndLine, lastLine + 1)
+    }
+    dirtyDelta += newLength - oldLength
+    modificationStamp = newModificationStamp
+  }
+
+  /**
+   * Brings the index up to date with the given text
+   *
+   * If all changes since the last update were recorded with [documentChanged], only the changed lines are scanned.
+   * Otherwise, the index is rebuilt from the text.
+   */
+  internal fun update(text: CharSequence, modificationStamp: Long) {
+    if (!isBuilt || modificationStamp != this.modificationStamp) {
+      rebuild(text)
+      this.modificationStamp = modificationStamp
+      isBuilt = true
+    } else if (dirtyEndLine != 0) {
+      rescanDirtyLines(text)
+    }
+  }
+
+  /**
+   * Returns the index line of an offset in the current text, which might have changed since the last update
+   *
+   * Offsets inside the changed lines return the first changed line, or the last one if [isEnd] is set.
+   */
+  private fun getIndexLine(offset: Int, isEnd: Boolean): Int {
+    if (dirtyEndLine == 0 || offset < getLineStartOffset(dirtyStartLine)) return getLine(offset)
+    if (dirtyEndLine < lineCount && offset >= getLineStartOffset(dirtyEndLine) + dirtyDelta) {
+      return getLine(offset - dirtyDelta)
+    }
+    return if (isEnd) dirtyEndLine - 1 else dirtyStartLine
+  }
+
+  private fun rescanDirtyLines(text: CharSequence) {
+    val from = getLineStartOffset(dirtyStartLine)
+    val hasCleanLinesAfter = dirtyEndLine < lineCount
+    // The current start of the first unchanged line after the changes. A new line character just before it ends the
+    // last changed line, rather than starting a new one
+    val to = if (hasCleanLinesAfter) getLineStartOffset(dirtyEndLine) + dirtyDelta else text.length + 1
+
+    var newCount = 1
+    for (i in from until to - 1) {
+      if (text[i] == '\n') newCount++
+    }
+
+    // Materialise the pending shift up to the changed lines, so it only applies to the lines after them
+    moveShift(dirtyEndLine)
+    val oldCount = dirtyEndLine - dirtyStartLine
+    val suffixCount = lineCount - dirtyEndLine
+    if (newCount != oldCount) {
+      ensureCapacity(lineCount - oldCount + newCount)
+      System.arraycopy(lineStarts, dirtyEndLine, lineStarts, dirtyStartLine + newCount, suffixCount)
+      System.arraycopy(flags, dirtyEndLine, flags, dirtyStartLine + newCount, suffixCount)
+    }
+
+    var line = dirtyStartLine
+    lineStarts[line] = from
+    flags[line] = computeFlags(text, from)
+    for (i in from until to - 1) {
+      if (text[i] == '\n') {
+        line++
+        lineStarts[line] = i + 1
+        flags[line] = computeFlags(text, i + 1)
+      }
+    }
+
+    lineCount += newCount - oldCount
+    shiftFromLine = dirtyStartLine + newCount
+    shiftDelta += dirtyDelta
+    dirtyStartLine = 0
+    dirtyEndLine = 0
+    dirtyDelta = 0
+  }
+
+  /**
+   * Applies the pending shift to the start offsets of the lines between [shiftFromLine] and [line], and makes it
+   * pending from [line] instead
+   */
+  private fun moveShift(line: Int) {
+    if (shiftDelta != 0) {
+      if (shiftFromLine < line) {
+        for (i in shiftFromLine until line) lineStarts[i] += shiftDelta
+      } else {
+        for (i in line until shiftFromLine) lineStarts[i] -= shiftDelta
+      }
+    }
+    shiftFromLine = line
+  }
+
+  private fun ensureCapacity(capacity: Int) {
+    if (capacity <= lineStarts.size) return
+    val newSize = maxOf(capacity, lineStarts.size + (lineStarts.size shr 1))
+    lineStarts = lineStarts.copyOf(newSize)
+    flags = flags.copyOf(newSize)
+  }
+
+  private fun rebuild(text: CharSequence) {
+    var count = 1
+    for (i in text.indices) {
+      if (text[i] == '\n') count++
+    }
+
+    val starts = IntArray(count)
+    var line = 1
+    for (i in text.indices) {
+      if (text[i] == '\n') starts[line++] = i + 1
+    }
+
+    lineStarts = starts
+    flags = ByteArray(count) { computeFlags(text, starts[it]) }
+    lineCount = count
+    shiftFromLine = count
+    shiftDelta = 0
+    dirtyStartLine = 0
+    dirtyEndLine = 0
+    dirtyDelta = 0
+  }
+
+  private fun computeFlags(text: CharSequence, lineStart: Int): Byte {
+    if (lineStart >= text.length || text[lineStart] == '\n') return (EMPTY or BLANK).toByte()
+
+    var result = 0
+    var blank = true
+    var offset = lineStart
+    while (offset < text.length) {
+      val ch = text[offset]
+      if (ch == '\n') break
+      if (blank && !Character.isWhitespace(ch)) blank = false
+      if (ch == '.' || ch == '!' || ch == '?' || ch == '\u000C') result = result or SENTENCE_END
+      offset++
+    }
+    // A whitespace-only line without a trailing new line is not considered blank
+    if (blank && offset < text.length) result = result or BLANK
+    return result.toByte()
+  }
+
+  companion object {
+    private const val EMPTY = 1
+    private const val BLANK = 2
+    private const val SENTENCE_END = 4
+
+    private val indexKey = Key<LineMetadataIndex>("lineMetadataIndex")
+
+    /**
+     * Returns the line metadata index for the editor's buffer, up to date with the current text
+     */
+    fun getInstance(editor: VimEditor): LineMetadataIndex {
+      val index = injector.vimStorageService.getOrPutBufferData(editor, indexKey) { LineMetadataIndex() }
+      index.update(editor.text(), editor.document.modificationStamp)
+      return index
+    }
+
+    /**
+     * Records a change to the editor's buffer in its index, if it has one
+     *
+     * This should be called after every change to a document. Offsets and lengths are those of the change, and the
+     * modification stamps are the document's stamps from before and after the change.
+     */
+    fun documentChanged(
+      editor: VimEditor,
+      offset: Int,
+      oldLength: Int,
+      newLength: Int,
+      oldModificationStamp: Long,
+      newModificationStamp: Long,
+    ) {
+      val index = injector.vimStorageService.getDataFromBuffer(editor, indexKey) ?: return
+      index.documentChanged(offset, oldLength, newLength, oldModificationStamp, newModificationStamp)
+    }
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.helper
+
+import java.io.InputStream
+
+/**
+ * Reads a registry of commands or functions generated by the annotation processors
+ *
+ * The registry has one entry per line, with tab-separated fields. It's read during startup, so it avoids the cost of
+ * initialising and running a JSON decoder.
+ *
+ * @return The fields of each entry
+ */
+internal fun readRegistryFile(stream: InputStream): List<List<String>> {
+  return stream.bufferedReader().useLines { lines ->
+    lines.filter { it.isNotEmpty() }.map { it.split('\t') }.toList()
+  }
+}
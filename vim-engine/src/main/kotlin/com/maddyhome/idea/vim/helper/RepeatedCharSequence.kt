@@ -0,0 +1,46 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.helper
+
+/**
+ * A read-only view of [text] repeated [count] times, without copying it
+ *
+ * Used to put a register several times, e.g. `100p`. The document copies the characters it needs into its own
+ * storage, so a large register isn't first copied into a string [count] times the size.
+ */
+class RepeatedCharSequence(private val text: CharSequence, private val count: Int) : CharSequence {
+  init {
+    require(count >= 0) { "Count must not be negative: $count" }
+  }
+
+  override val length: Int = Math.multiplyExact(text.length, count)
+
+  override fun get(index: Int): Char {
+    if (index < 0 || index >= length) throw IndexOutOfBoundsException("Index $index, length $length")
+    return text[index % text.length]
+  }
+
+  override fun subSequence(startIndex: Int, endIndex: Int): CharSequence {
+    if (startIndex < 0 || endIndex > length || startIndex > endIndex) {
+      throw IndexOutOfBoundsException("Range [$startIndex, $endIndex), length $length")
+    }
+    if (count == 1) return text.subSequence(startIndex, endIndex)
+    return buildString(endIndex - startIndex) {
+      var index = startIndex
+      while (index < endIndex) {
+        val textIndex = index % text.length
+        val end = minOf(text.length, textIndex + endIndex - index)
+        append(text, textIndex, end)
+        index += end - textIndex
+      }
+    }
+  }
+
+  override fun toString(): String = if (count == 1) text.toString() else text.toString().repeat(count)
+}
@@ -10,41 +10,152 @@ package com.maddyhome.idea.vim.history
 
 import com.maddyhome.idea.vim.api.globalOptions
 import com.maddyhome.idea.vim.api.injector
-import com.maddyhome.idea.vim.common.VimRing
-
-internal class HistoryBlock {
-  // Entries are deduplicated by their text: the number is assigned per add, so including it in the
-  // key would make every entry unique and defeat the deduplication.
-  private val ring = VimRing<HistoryEntry>(
-    maxSize = { injector.globalOptions().history },
-    keyOf = { it.entry },
-  )
+import java.util.*
+
+/**
+ * The entries of a single history, such as the command line or search history
+ *
+ * Entries are kept oldest first. Numbers are assigned in increasing order as entries are added, so the list is also
+ * sorted by number, and an entry can be found by number, or a range of numbers sliced, with a binary search. A second
+ * index sorts the entries by text. It's used to deduplicate entries, and to find the entries starting with the prefix
+ * typed in the command line when navigating with `<Up>` and `<Down>`.
+ *
+ * @param maxSize Read on every add, so that changing the `'history'` option takes effect immediately
+ */
+internal class HistoryBlock(private val maxSize: () -> Int = { injector.globalOptions().history }) {
+  private val entries = ArrayList<HistoryEntry>()
+  private val entriesByText = TreeMap<String, HistoryEntry>()
   private var counter = 0
+  private var current: HistoryEntry? = null
+
+  // The entries matching the last prefix filter, oldest first. The same filter is used for every step while navigating
+  // through the history, so this is only recalculated when the filter or the history changes
+  private var filteredEntries: Pair<String, List<HistoryEntry>>? = null
 
   val currentEntry: HistoryEntry?
-    get() = ring.currentEntry
+    get() = current
 
   val mostRecentEntry: HistoryEntry?
-    get() = ring.mostRecentEntry
+    get() = entries.lastOrNull()
+
+  val size: Int
+    get() = entries.size
 
   fun addEntry(text: String) {
     if (text.isEmpty()) return
 
-    ring.add(HistoryEntry(++counter, text))
+    // Entries are deduplicated by their text. The existing entry is removed, so the text becomes the newest entry with
+    // a new number
+    entriesByText.remove(text)?.let { entries.removeAt(indexOfNumber(it.number)) }
+
+    val entry = HistoryEntry(++counter, text)
+    entries.add(entry)
+    entriesByText[text] = entry
+
+    // The limit is read live and may have shrunk since the last add, so we might need to drop more than one entry
+    val excess = entries.size - maxSize().coerceAtLeast(0)
+    if (excess > 0) {
+      val dropped = entries.subList(0, excess)
+      dropped.forEach { entriesByText.remove(it.entry) }
+      dropped.clear()
+    }
+    changed()
+  }
+
+  fun removeEntryByNumber(number: Int): Boolean {
+    val index = indexOfNumber(number)
+    if (index < 0) return false
+
+    entriesByText.remove(entries.removeAt(index).entry)
+    changed()
+    return true
+  }
+
+  /**
+   * Removes all entries matching [predicate] in a single pass
+   *
+   * @return true if any entry was removed
+   */
+  fun removeEntries(predicate: (HistoryEntry) -> Boolean): Boolean {
+    val removed = entries.removeIf {
+      predicate(it).also { matches -> if (matches) entriesByText.remove(it.entry) }
+    }
+    if (removed) changed()
+    return removed
+  }
+
+  /**
+   * A snapshot of all entries, oldest first
+   */
+  fun getEntries(): List<HistoryEntry> = entries.toList()
+
+  /**
+   * A snapshot of the entries numbered from [first] to [last] inclusive, oldest first
+   *
+   * Only the entries in the range are copied.
+   */
+  fun getEntries(first: Int, last: Int): List<HistoryEntry> {
+    if (first > last) return emptyList()
+    val fromIndex = insertionIndexOfNumber(first)
+    val toIndex = if (last == Int.MAX_VALUE) entries.size else insertionIndexOfNumber(last + 1)
+    return if (fromIndex < toIndex) entries.subList(fromIndex, toIndex).toList() else emptyList()
+  }
+
+  /**
+   * Returns the entry at the given index, where 0 is the oldest entry
+   */
+  fun getEntry(index: Int): HistoryEntry = entries[index]
+
+  fun selectNewerEntry(filter: String?): HistoryEntry? {
+    val from = current ?: return null
+    val candidates = matching(filter)
+
+    // Stepping past the newest entry resets the current entry, which returns to the text the user was typing
+    current = candidates.getOrNull(insertionIndexOfNumber(candidates, from.number + 1))
+    return current
   }
 
-  fun removeEntryByNumber(number: Int): Boolean = ring.remove { it.number == number }
+  fun selectOlderEntry(filter: String?): HistoryEntry? {
+    val candidates = matching(filter)
 
-  fun getEntries(): List<HistoryEntry> = ring.getEntries()
+    val index = current?.let { insertionIndexOfNumber(candidates, it.number) - 1 } ?: (candidates.size - 1)
+    if (index < 0) return null
+
+    current = candidates[index]
+    return current
+  }
 
-  fun selectNewerEntry(filter: String?): HistoryEntry? = ring.selectNewer(matching(filter))
+  private fun matching(filter: String?): List<HistoryEntry> {
+    if (filter == null) return entries
 
-  fun selectOlderEntry(filter: String?): HistoryEntry? = ring.selectOlder(matching(filter))
+    filteredEntries?.let { (cachedFilter, cachedEntries) ->
+      if (cachedFilter == filter) return cachedEntries
+    }
 
-  private fun matching(filter: String?): (HistoryEntry) -> Boolean =
-    if (filter == null) {
-      { true }
-    } else {
-      { it.entry.startsWith(filter) }
+    val matches = ArrayList<HistoryEntry>()
+    for ((text, entry) in entriesByText.tailMap(filter, true)) {
+      if (!text.startsWith(filter)) break
+      matches.add(entry)
     }
+    matches.sortBy { it.number }
+    filteredEntries = filter to matches
+    return matches
+  }
+
+  private fun indexOfNumber(number: Int) = entries.binarySearch { it.number.compareTo(number) }
+
+  private fun insertionIndexOfNumber(number: Int) = insertionIndexOfNumber(entries, number)
+
+  /**
+   * Returns the index of the first entry with a number greater than or equal to [number]
+   */
+  private fun insertionIndexOfNumber(list: List<HistoryEntry>, number: Int): Int {
+    val index = list.binarySearch { it.number.compareTo(number) }
+    return if (index >= 0) index else -index - 1
+  }
+
+  private fun changed() {
+    current = null
+    filteredEntries = null
+  }
 }
@@ -28,24 +28,22 @@ open class VimHistoryBase : VimHistory {
     var myLast = last
     val block = getEntriesBlockByType(type)
 
-    val entries = block.getEntries()
+    val size = block.size
     if (myFirst == 0 && myLast == 0) {
       myLast = Integer.MAX_VALUE
     }
     if (myFirst < 0) {
-      myFirst = if (-myFirst > entries.size) {
+      myFirst = if (-myFirst > size) {
         Integer.MAX_VALUE
       } else {
-        val entry = entries[entries.size + myFirst]
-        entry.number
+        block.getEntry(size + myFirst).number
       }
     }
     if (myLast < 0) {
-      myLast = if (-myLast > entries.size) {
+      myLast = if (-myLast > size) {
         Integer.MIN_VALUE
       } else {
-        val entry = entries[entries.size + myLast]
-        entry.number
+        block.getEntry(size + myLast).number
       }
     } else if (myLast == 0) {
       myLast = myFirst
@@ -53,14 +51,7 @@ open class VimHistoryBase : VimHistory {
 
     logger.debug { "first=$myFirst\nlast=$myLast" }
 
-    val res = mutableListOf<HistoryEntry>()
-    for (entry in entries) {
-      if (entry.number in myFirst..myLast) {
-        res.add(entry)
-      }
-    }
-
-    return res
+    return block.getEntries(myFirst, myLast)
   }
 
   override fun removeEntry(type: VimHistory.Type, item: Int):Boolean {
@@ -78,13 +69,7 @@ open class VimHistoryBase : VimHistory {
     try {
       val block = getEntriesBlockByType(type)
       val regex = VimRegex(pattern)
-      var result = false
-      block.getEntries().toList().forEach {
-        if (regex.containsMatchIn(it.entry)) {
-          result = result or block.removeEntryByNumber(it.number)
-        }
-      }
-      return result
+      return block.removeEntries { regex.containsMatchIn(it.entry) }
     }
     catch (e: VimRegexException) {
       when (e.message) {
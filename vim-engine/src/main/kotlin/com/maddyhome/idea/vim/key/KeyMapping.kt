@@ -45,8 +45,13 @@ class KeyMapping(private val mode: MappingMode) : Iterable<List<KeyStroke>> {
   /**
    * Returns mapping info for the given key sequence, if any
    */
-  operator fun get(keys: List<KeyStroke>): MappingInfo? {
-    keysTrie.getData(keys)?.let { return it }
+  operator fun get(keys: List<KeyStroke>): MappingInfo? = get(keys, keysTrie.getTrieNode(keys))
+
+  /**
+   * Returns mapping info for the given key sequence, using a trie node already found with [getTrieNode]
+   */
+  internal fun get(keys: List<KeyStroke>, node: TrieNode<MappingInfo>?): MappingInfo? {
+    node?.data?.let { return it }
 
     // Mapping a keystroke to an IDE action is a recursive mapping. The lhs is the keys, and the rhs is the
     // <Action>(...) key sequence. Like <Plug>, this needs to be mapped to a handler, but we have far too many IDE
@@ -62,6 +67,12 @@ class KeyMapping(private val mode: MappingMode) : Iterable<List<KeyStroke>> {
   operator fun get(keys: Iterable<KeyStroke>): MappingInfo? =
     get(keys as? List<KeyStroke> ?: keys.toList())
 
+  /**
+   * Returns the trie node for the given keys, walking only the keys the cursor hasn't already seen
+   */
+  internal fun getTrieNode(keys: List<KeyStroke>, cursor: KeyStrokeTrieCursor<MappingInfo>): TrieNode<MappingInfo>? =
+    cursor.getNode(keysTrie, keys)
+
   private fun getActionNameFromActionMapping(keys: List<KeyStroke>): String? {
     if (keys.size > 3
       && keys[0].keyCode == injector.parser.actionKeyStroke.keyCode
@@ -160,15 +171,32 @@ class KeyMapping(private val mode: MappingMode) : Iterable<List<KeyStroke>> {
     keysTrie.clear()
   }
 
+  /**
+   * Changes whenever a key sequence is added or removed
+   */
+  internal val modificationCount: Int
+    get() = keysTrie.modificationCount
+
+  /**
+   * Returns true if any key sequence in this mapping mode starts with the given key
+   */
+  internal fun hasSequenceStartingWith(key: KeyStroke): Boolean =
+    keysTrie.getChildNode(keysTrie.rootNode, key) != null
+
   /**
    * Returns true if the given list of keystrokes is a prefix
    *
    * Used while handling unfinished mapping sequences. Note that a list of keystrokes that is both a key sequence and a
    * prefix is treated as a prefix.
    */
-  fun isPrefix(keys: List<KeyStroke>): Boolean {
+  fun isPrefix(keys: List<KeyStroke>): Boolean = isPrefix(keys, keysTrie.getTrieNode(keys))
+
+  /**
+   * Returns true if the given list of keystrokes is a prefix, using a trie node already found with [getTrieNode]
+   */
+  internal fun isPrefix(keys: List<KeyStroke>, node: TrieNode<MappingInfo>?): Boolean {
     if (keys.isEmpty()) return false
-    if (keysTrie.isPrefix(keys)) return true
+    if (node?.hasChildren == true) return true
 
     // Is this an incomplete RHS on-demand <Action>(...)?
     return keys.first().keyCode == injector.parser.actionKeyStroke.keyCode
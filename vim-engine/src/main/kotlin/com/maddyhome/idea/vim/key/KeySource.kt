@@ -71,6 +71,14 @@ enum class KeySource(val allowsKeyMapping: Boolean) {
    */
   MACRO_PLAYBACK(true),
 
+  /**
+   * The key was created by playing back a macro, and none of the macro's keys can start a mapping
+   *
+   * Mapping is skipped, which gives the same result as [MACRO_PLAYBACK]. See
+   * [com.maddyhome.idea.vim.macro.MacroPlaybackPlan].
+   */
+  MACRO_PLAYBACK_NOT_MAPPED(false),
+
   /**
    * Key was generated by the `:normal` command. Treated as though it was typed.
    *
@@ -32,25 +32,119 @@ class KeyStrokeTrie<T>(private val name: String) {
   }
 
   private class TrieNodeImpl<T>(
-    val name: String,
     override val key: KeyStroke,
     override val parent: TrieNodeImpl<T>?,
     override var data: T?,
   ) : TrieNode<T> {
 
-    // Only initialised when we're adding children. If we don't add children, it will be uninitialised.
-    // Avoid unnecessary access, to avoid allocating empty maps for leaf nodes.
-    val children = lazy { mutableMapOf<KeyStroke, TrieNodeImpl<T>>() }
+    // Children are kept in insertion order, with a separate index sorted by packed keystroke for binary search. This
+    // avoids hashing KeyStroke instances for every lookup. The arrays are only allocated when the first child is added,
+    // so leaf nodes don't allocate empty tables.
+    private var childKeys: LongArray? = null
+    private var childNodes: Array<TrieNodeImpl<T>?>? = null
+    private var sortedIndex: IntArray? = null
+
+    var childCount = 0
+      private set
+
+    // Only used for debugging, so it's calculated on demand rather than stored for every node
+    val name: String
+      get() = parent?.let { it.name + injector.parser.toKeyNotation(key) } ?: ""
 
     override val hasChildren
-      get() = children.isInitialized() && children.value.isNotEmpty()
+      get() = childCount > 0
 
     val depth: Int
       get() = parent?.let { it.depth + 1 } ?: 0
 
+    fun getChild(key: KeyStroke): TrieNodeImpl<T>? {
+      val position = findChild(pack(key))
+      return if (position >= 0) childNodes!![sortedIndex!![position]] else null
+    }
+
+    fun getOrAddChild(key: KeyStroke): TrieNodeImpl<T> {
+      val packedKey = pack(key)
+      val position = findChild(packedKey)
+      if (position >= 0) return childNodes!![sortedIndex!![position]]!!
+
+      val child = TrieNodeImpl(key, this, null)
+      val keys = childKeys?.takeIf { childCount < it.size } ?: growChildren()
+      keys[childCount] = packedKey
+      childNodes!![childCount] = child
+      val insertAt = -position - 1
+      val index = sortedIndex!!
+      System.arraycopy(index, insertAt, index, insertAt + 1, childCount - insertAt)
+      index[insertAt] = childCount
+      childCount++
+      return child
+    }
+
+    fun removeChild(key: KeyStroke) {
+      val position = findChild(pack(key))
+      if (position < 0) return
+      val keys = childKeys!!
+      val nodes = childNodes!!
+      val index = sortedIndex!!
+      val removed = index[position]
+
+      // Remove from the insertion ordered arrays, and from the sorted index, fixing up the positions that have moved
+      System.arraycopy(keys, removed + 1, keys, removed, childCount - removed - 1)
+      System.arraycopy(nodes, removed + 1, nodes, removed, childCount - removed - 1)
+      System.arraycopy(index, position + 1, index, position, childCount - position - 1)
+      childCount--
+      nodes[childCount] = null
+      for (i in 0 until childCount) {
+        if (index[i] > removed) index[i]--
+      }
+    }
+
+    fun clearChildren() {
+      childKeys = null
+      childNodes = null
+      sortedIndex = null
+      childCount = 0
+    }
+
+    fun getChildAt(i: Int): TrieNodeImpl<T> = childNodes!![i]!!
+
+    inline fun forEachChild(action: (TrieNodeImpl<T>) -> Unit) {
+      val nodes = childNodes ?: return
+      for (i in 0 until childCount) {
+        action(nodes[i]!!)
+      }
+    }
+
+    /**
+     * Returns the position of the key in the sorted index, or `-(insertion point) - 1` if not found
+     */
+    private fun findChild(packedKey: Long): Int {
+      val keys = childKeys ?: return -1
+      val index = sortedIndex!!
+      var low = 0
+      var high = childCount - 1
+      while (low <= high) {
+        val mid = (low + high) ushr 1
+        val midKey = keys[index[mid]]
+        when {
+          midKey < packedKey -> low = mid + 1
+          midKey > packedKey -> high = mid - 1
+          else -> return mid
+        }
+      }
+      return -(low + 1)
+    }
+
+    private fun growChildren(): LongArray {
+      val newSize = if (childCount == 0) 2 else childCount * 2
+      val keys = (childKeys ?: LongArray(0)).copyOf(newSize)
+      childKeys = keys
+      childNodes = (childNodes ?: arrayOfNulls(0)).copyOf(newSize)
+      sortedIndex = (sortedIndex ?: IntArray(0)).copyOf(newSize)
+      return keys
+    }
+
     override fun visit(visitor: (KeyStroke, TrieNode<T>) -> Unit) {
-      if (!children.isInitialized()) return
-      children.value.forEach { visitor(it.key, it.value) }
+      forEachChild { visitor(it.key, it) }
     }
 
     /**
@@ -68,15 +162,15 @@ class KeyStrokeTrie<T>(private val name: String) {
           append(", ")
           append(data)
         }
-        if (children.isInitialized() && children.value.isNotEmpty()) {
+        if (childCount > 0) {
           appendLine()
-          children.value.forEach {
+          forEachChild {
             repeat(depth + 1) { append(" ") }
             append("'")
             append(injector.parser.toKeyNotation(it.key))
             append("' - ")
-            it.value.dump(this)
-            if (children.value.size > 1 || depth > 0) appendLine()
+            it.dump(this)
+            if (childCount > 1 || depth > 0) appendLine()
           }
           repeat(depth) { append(" ") }
         }
@@ -84,24 +178,35 @@ class KeyStrokeTrie<T>(private val name: String) {
       }
     }
 
-    override fun toString() = "TrieNode('$name', ${children.value.size} children): $data"
+    override fun toString() = "TrieNode('$name', $childCount children): $data"
   }
 
   private val root = TrieNodeImpl<T>(
-    name = "",
     key = KeyStroke.getKeyStroke(KeyEvent.CHAR_UNDEFINED),
     parent = null,
     data = null
   )
 
+  /**
+   * Incremented whenever a sequence is added or removed, so cached nodes can be checked for staleness
+   */
+  internal var modificationCount = 0
+    private set
+
+  internal val rootNode: TrieNode<T>
+    get() = root
+
+  /**
+   * Returns the child of the given node for the given key, if it exists
+   *
+   * This allows walking the trie one key at a time, rather than starting from the root for each new key sequence.
+   */
+  internal fun getChildNode(node: TrieNode<T>, key: KeyStroke): TrieNode<T>? = (node as TrieNodeImpl<T>).getChild(key)
+
   fun add(keyStrokes: List<KeyStroke>, data: T) {
+    modificationCount++
     var current = root
-    keyStrokes.forEachIndexed { i, stroke ->
-      current = current.children.value.getOrPut(stroke) {
-        val name = current.name + injector.parser.toKeyNotation(stroke)
-        TrieNodeImpl(name, stroke, current, if (i == keyStrokes.lastIndex) data else null)
-      }
-    }
+    keyStrokes.forEach { current = current.getOrAddChild(it) }
 
     // Last write wins (also means we can't cache results)
     current.data = data
@@ -126,8 +231,7 @@ class KeyStrokeTrie<T>(private val name: String) {
   fun getTrieNode(keyStrokes: List<KeyStroke>): TrieNode<T>? {
     var current = root
     keyStrokes.forEach {
-      if (!current.children.isInitialized()) return null
-      current = current.children.value[it] ?: return null
+      current = current.getChild(it) ?: return null
     }
     return current
   }
@@ -145,8 +249,8 @@ class KeyStrokeTrie<T>(private val name: String) {
   fun getEntries(prefix: List<KeyStroke>? = null, includePrefixNodes: Boolean = false): Sequence<TrieNode<T>> {
     suspend fun SequenceScope<TrieNode<T>>.yieldAllTrieNodes(node: TrieNodeImpl<T>) {
       if (node.data != null) yield(node)
-      if (node.children.isInitialized()) {
-        node.children.value.forEach { yieldAllTrieNodes(it.value) }
+      for (i in 0 until node.childCount) {
+        yieldAllTrieNodes(node.getChildAt(i))
       }
     }
 
@@ -155,14 +259,15 @@ class KeyStrokeTrie<T>(private val name: String) {
     if (prefix?.isNotEmpty() == true) {
       // For prefix matching, yield all nodes along the path that have data, then yield the children
       prefix.forEach {
-        if (!node.children.isInitialized()) return@sequence
-        node = node.children.value[it] ?: return@sequence
+        node = node.getChild(it) ?: return@sequence
         if (node.data != null && includePrefixNodes) {
           yield(node)
         }
       }
-      if (node != root && node.children.isInitialized()) {
-        node.children.value.forEach { yieldAllTrieNodes(it.value) }
+      if (node != root) {
+        for (i in 0 until node.childCount) {
+          yieldAllTrieNodes(node.getChildAt(i))
+        }
       }
     }
     else {
@@ -188,8 +293,7 @@ class KeyStrokeTrie<T>(private val name: String) {
    * Will return true even if the current keys map to a node with data.
    */
   fun isPrefix(keyStrokes: List<KeyStroke>): Boolean {
-    val node = getTrieNode(keyStrokes) as? TrieNodeImpl<T> ?: return false
-    return node.children.isInitialized() && node.children.value.isNotEmpty()
+    return getTrieNode(keyStrokes)?.hasChildren == true
   }
 
   /**
@@ -198,41 +302,48 @@ class KeyStrokeTrie<T>(private val name: String) {
    * If the key sequence is also a prefix, removes the associated data, but does not modify any child sequences.
    */
   fun remove(keys: List<KeyStroke>) {
+    modificationCount++
     val path = buildList {
       var current = root
       keys.forEach { key ->
-        if (!current.children.isInitialized()) return
-        val next = current.children.value[key] ?: return
+        val next = current.getChild(key) ?: return
         add(Pair(current, key))
         current = next
       }
     }
 
     path.asReversed().forEach { (parent, key) ->
-      val child = parent.children.value[key] ?: return
+      val child = parent.getChild(key) ?: return
       child.data = null
-      if (child.children.isInitialized() && child.children.value.isNotEmpty()) return
-      parent.children.value.remove(key)
-      if (parent.children.value.isNotEmpty() || parent.data != null) return
+      if (child.hasChildren) return
+      parent.removeChild(key)
+      if (parent.hasChildren || parent.data != null) return
     }
   }
 
   fun clear() {
-    if (root.children.isInitialized()) {
-      root.children.value.clear()
-    }
+    modificationCount++
+    root.clearChildren()
   }
 
   override fun toString(): String {
-    val children = if (root.children.isInitialized()) {
-      "${root.children.value.size} children"
-    } else {
-      "0 children (not initialized)"
-    }
-    return "KeyStrokeTrie - '$name', $children"
+    return "KeyStrokeTrie - '$name', ${root.childCount} children"
   }
 }
 
+/**
+ * Packs a keystroke into a long, so trie lookups compare primitives rather than hashing [KeyStroke] instances
+ *
+ * [KeyStroke] equality is defined by key char, key code, modifiers and key release. Key codes, including the extended
+ * key codes used for Unicode characters, fit in 25 bits, and the keyboard modifiers (including the extended masks) fit
+ * in 22 bits.
+ */
+private fun pack(key: KeyStroke): Long =
+  (key.keyCode.toLong() shl 39) or
+    ((key.modifiers.toLong() and 0x3FFFFF) shl 17) or
+    (if (key.isOnKeyRelease) 1L shl 16 else 0L) or
+    key.keyChar.code.toLong()
+
 fun <T> KeyStrokeTrie<T>.add(keys: String, data: T) {
   add(injector.parser.parseKeys(keys), data)
 }
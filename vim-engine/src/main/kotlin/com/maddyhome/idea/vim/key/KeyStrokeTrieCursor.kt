@@ -0,0 +1,53 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.key
+
+import com.maddyhome.idea.vim.key.KeyStrokeTrie.TrieNode
+import javax.swing.KeyStroke
+
+/**
+ * Tracks the trie node for a key sequence that grows one key at a time
+ *
+ * Pending mapping and command keys are looked up after every keystroke. Rather than walking the trie from the root for
+ * the whole sequence each time, the cursor remembers the node for the keys it has already seen, and only looks up the
+ * children for the new keys.
+ *
+ * The owner of the key list must call [reset] when the list is cleared or replaced. The cursor also starts again from
+ * the root if it is used with a different trie, if the trie has been modified, or if the key list has shrunk.
+ */
+internal class KeyStrokeTrieCursor<T> {
+  private var trie: KeyStrokeTrie<T>? = null
+  private var modificationCount = 0
+  private var node: TrieNode<T>? = null
+  private var depth = 0
+
+  /**
+   * Returns the node for the given keys, or null if there is no sequence starting with these keys
+   */
+  fun getNode(trie: KeyStrokeTrie<T>, keys: List<KeyStroke>): TrieNode<T>? {
+    if (trie !== this.trie || trie.modificationCount != modificationCount || keys.size < depth) {
+      this.trie = trie
+      modificationCount = trie.modificationCount
+      node = trie.rootNode
+      depth = 0
+    }
+
+    while (depth < keys.size) {
+      node = node?.let { trie.getChildNode(it, keys[depth]) }
+      depth++
+    }
+    return node
+  }
+
+  fun reset() {
+    trie = null
+    node = null
+    depth = 0
+  }
+}
@@ -90,6 +90,7 @@ class LangMapConsumer : KeyConsumer {
     KeySource.LITERAL -> false
     KeySource.NORMAL_COMMAND -> false
     KeySource.NORMAL_COMMAND_NOT_MAPPED -> false
+    KeySource.MACRO_PLAYBACK_NOT_MAPPED -> false
     KeySource.MAPPING_PREFIX_REPLAY -> false
     KeySource.SYNTHETIC_TYPED_NOT_MAPPED -> false
 
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.macro
+
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.command.MappingMode
+import com.maddyhome.idea.vim.key.KeyMapping
+import com.maddyhome.idea.vim.key.KeySource
+import javax.swing.KeyStroke
+
+/**
+ * Prepared information about a sequence of keys that is replayed by a macro or `:normal`
+ *
+ * Replayed keys go through the mapping processor one at a time, which checks the mapping state and looks each key up in
+ * the mappings for the current mode. The same register or `:normal` argument is often replayed many times, and usually
+ * none of its keys can start a mapping in any mode. In that case, the keys can be handled without mapping, which gives
+ * the same result.
+ *
+ * The result is cached with the key sequence, and is checked again whenever a mapping changes, including changes made
+ * by the replayed keys themselves. Plans are cached for the most recently replayed key sequences, so repeated `@q`,
+ * `@@` and `:normal` over a range share the work.
+ */
+class MacroPlaybackPlan private constructor(private val keys: List<KeyStroke>) {
+  private val checkedMappings = arrayOfNulls<KeyMapping>(modes.size)
+  private val checkedModificationCounts = IntArray(modes.size)
+  private var canBeMapped = true
+
+  /**
+   * Returns [mappedSource] if any of the keys can start a mapping, or [unmappedSource] if mapping can be skipped
+   *
+   * This should be called for each replayed key, so that a mapping added or removed by earlier keys is taken into
+   * account.
+   */
+  fun getKeySource(mappedSource: KeySource, unmappedSource: KeySource): KeySource {
+    if (isOutOfDate()) update()
+    return if (canBeMapped) mappedSource else unmappedSource
+  }
+
+  private fun isOutOfDate(): Boolean {
+    for (i in modes.indices) {
+      val mapping = injector.keyGroup.getKeyMapping(modes[i])
+      if (mapping !== checkedMappings[i] || mapping.modificationCount != checkedModificationCounts[i]) return true
+    }
+    return false
+  }
+
+  private fun update() {
+    val distinctKeys = keys.toSet()
+    // On-demand `<Action>(...)` sequences are handled by the mapping processor without a mapping
+    val actionKeyCode = injector.parser.actionKeyStroke.keyCode
+    canBeMapped = distinctKeys.any { it.keyCode == actionKeyCode }
+    for (i in modes.indices) {
+      val mapping = injector.keyGroup.getKeyMapping(modes[i])
+      checkedMappings[i] = mapping
+      checkedModificationCounts[i] = mapping.modificationCount
+      if (!canBeMapped) {
+        canBeMapped = distinctKeys.any { mapping.hasSequenceStartingWith(it) }
+      }
+    }
+  }
+
+  companion object {
+    private const val CACHE_SIZE = 16
+    private val modes = MappingMode.entries
+
+    private val cache = object : LinkedHashMap<List<KeyStroke>, MacroPlaybackPlan>(CACHE_SIZE, 0.75f, true) {
+      override fun removeEldestEntry(eldest: MutableMap.MutableEntry<List<KeyStroke>, MacroPlaybackPlan>?) =
+        size > CACHE_SIZE
+    }
+
+    /**
+     * Returns the plan for the given key sequence, reusing a cached plan for the same keys if there is one
+     */
+    fun getInstance(keys: List<KeyStroke>): MacroPlaybackPlan {
+      return cache[keys] ?: MacroPlaybackPlan(keys.toList()).also { cache[it.keys] = it }
+    }
+  }
+}
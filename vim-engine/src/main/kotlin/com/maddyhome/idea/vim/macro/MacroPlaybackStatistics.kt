@@ -0,0 +1,20 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.macro
+
+/**
+ * Number of keys handled during a top-level macro playback, including nested macros, and the time it took
+ */
+data class MacroPlaybackStatistics(val keyCount: Int, val durationNanos: Long) {
+  val keysPerSecond: Double
+    get() = if (durationNanos == 0L) 0.0 else keyCount * 1_000_000_000.0 / durationNanos
+
+  override fun toString(): String =
+    "$keyCount keys in ${durationNanos / 1_000_000} ms (${keysPerSecond.toLong()} keys/sec)"
+}
@@ -13,8 +13,23 @@ import com.maddyhome.idea.vim.api.VimEditor
 
 interface VimMacro {
   val isExecutingMacro: Boolean
+
+  /**
+   * True while keys are replayed in bulk, by a macro or by [runBulkReplay]
+   *
+   * UI updates that would otherwise happen for each key, such as the status bar and search highlights, are skipped, and
+   * made once the replay has finished.
+   */
+  val isReplayingKeys: Boolean
   var lastRegister: Char
 
+  /**
+   * Runs [action], which replays keys through the key handler, with per-key UI updates deferred until it has finished
+   *
+   * Used by commands such as `:normal` that replay the same keys many times.
+   */
+  fun <T> runBulkReplay(editor: VimEditor, action: () -> T): T
+
   /**
    * Keys are taken from KeyHandler.mappingStack
    */
@@ -11,20 +11,34 @@ package com.maddyhome.idea.vim.macro
 import com.maddyhome.idea.vim.KeyHandler
 import com.maddyhome.idea.vim.api.ExecutionContext
 import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.globalOptions
 import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.diagnostic.VimLogger
 import com.maddyhome.idea.vim.diagnostic.debug
 import com.maddyhome.idea.vim.diagnostic.trace
 import com.maddyhome.idea.vim.diagnostic.vimLogger
+import com.maddyhome.idea.vim.key.KeySource
 
 abstract class VimMacroBase : VimMacro {
   override var lastRegister: Char = 0.toChar()
   private var macroDepth = 0
+  private var bulkReplayDepth = 0
+  private var playbackKeyCount = 0
+  private val playbackPlans = ArrayDeque<MacroPlaybackPlan>()
 
   // Macro depth. 0 - if macro is not executing. 1 - macro in progress. 2+ - nested macro
   override val isExecutingMacro: Boolean
     get() = macroDepth > 0
 
+  override val isReplayingKeys: Boolean
+    get() = macroDepth > 0 || bulkReplayDepth > 0
+
+  /**
+   * Key count and duration of the last top-level macro playback, or null if no macro has been played back yet
+   */
+  var lastPlaybackStatistics: MacroPlaybackStatistics? = null
+    private set
+
   /**
    * This method is used to play the macro of keystrokes stored in the specified registers.
    *
@@ -37,7 +51,11 @@ abstract class VimMacroBase : VimMacro {
   override fun playbackRegister(editor: VimEditor, context: ExecutionContext, reg: Char, count: Int): Boolean {
     logger.debug { "play back register $reg $count times" }
     val register = injector.registerGroup.getPlaybackRegister(editor, context, reg) ?: return false
+    val isTopLevel = !isReplayingKeys
+    if (macroDepth == 0) playbackKeyCount = 0
+    val startTime = System.nanoTime()
     ++macroDepth
+    playbackPlans.addLast(MacroPlaybackPlan.getInstance(register.keys))
     try {
       logger.trace {
         "Adding new keys to keyStack as part of playback. State before adding keys: ${KeyHandler.getInstance().keyStack.dump()}"
@@ -45,7 +63,14 @@ abstract class VimMacroBase : VimMacro {
       KeyHandler.getInstance().keyStack.addKeys(register.keys)
       playbackKeys(editor, context, count)
     } finally {
+      playbackPlans.removeLast()
       --macroDepth
+      if (macroDepth == 0) {
+        val statistics = MacroPlaybackStatistics(playbackKeyCount, System.nanoTime() - startTime)
+        lastPlaybackStatistics = statistics
+        logger.debug { "Played back register $reg: $statistics" }
+      }
+      if (isTopLevel) onPlaybackFinished(editor)
     }
 
     lastRegister = reg
@@ -64,6 +89,46 @@ abstract class VimMacroBase : VimMacro {
     return lastRegister.code != 0 && playbackRegister(editor, context, lastRegister, count)
   }
 
+  override fun <T> runBulkReplay(editor: VimEditor, action: () -> T): T {
+    val isTopLevel = !isReplayingKeys
+    ++bulkReplayDepth
+    try {
+      return action()
+    } finally {
+      --bulkReplayDepth
+      if (isTopLevel) onPlaybackFinished(editor)
+    }
+  }
+
+  /**
+   * Returns the key source for the next key of the register being played back
+   *
+   * Mapping is skipped if none of the register's keys can start a mapping (see [MacroPlaybackPlan]), unless
+   * `'langmap'` is set, because that still applies to played back keys.
+   */
+  protected fun getPlaybackKeySource(): KeySource {
+    val plan = playbackPlans.lastOrNull() ?: return KeySource.MACRO_PLAYBACK
+    if (injector.globalOptions().langmap.isNotEmpty()) return KeySource.MACRO_PLAYBACK
+    return plan.getKeySource(KeySource.MACRO_PLAYBACK, KeySource.MACRO_PLAYBACK_NOT_MAPPED)
+  }
+
+  /**
+   * Called by [playbackKeys] implementations for each key fed to the key handler
+   */
+  protected fun countPlaybackKey() {
+    playbackKeyCount++
+  }
+
+  /**
+   * Called when the top-level macro playback or bulk replay has finished, including nested macros
+   *
+   * While keys are replayed, UI updates such as the status bar are skipped for each key. This refreshes them once
+   * for the final state.
+   */
+  protected open fun onPlaybackFinished(editor: VimEditor) {
+    injector.messages.updateStatusBar(editor)
+  }
+
   companion object {
     val logger: VimLogger = vimLogger<VimMacroBase>()
   }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.mark
+
+/**
+ * The jumps of a single jump list, oldest first
+ *
+ * Like Vim, a list holds at most one jump per line of a file. The jumps are indexed by file and line, so adding a jump
+ * replaces the jump on the same line without scanning the list. A [copy] shares the jumps with the original list until
+ * either of them is changed, so a new window can inherit the jump list of the window it was split from without copying
+ * it.
+ *
+ * The line and file of a jump must not be changed while it is in a list, or it will no longer be found by its line.
+ */
+class JumpList private constructor(private var jumps: Jumps) : AbstractList<Jump>() {
+  constructor() : this(Jumps())
+
+  constructor(jumps: Iterable<Jump>) : this(Jumps()) {
+    jumps.forEach { this.jumps.byLine[it.key] = it }
+  }
+
+  override val size: Int
+    get() = jumps.byLine.size
+
+  override fun get(index: Int): Jump = jumps.asList()[index]
+
+  /**
+   * Adds a jump as the newest jump, replacing any jump on the same line, and drops the oldest jumps beyond [maxSize]
+   */
+  fun addJump(jump: Jump, maxSize: Int) {
+    val byLine = mutableJumps()
+    val key = jump.key
+    byLine.remove(key)
+    byLine[key] = jump
+
+    val iterator = byLine.values.iterator()
+    while (byLine.size > maxSize && iterator.hasNext()) {
+      iterator.next()
+      iterator.remove()
+    }
+  }
+
+  fun removeJump(jump: Jump): Boolean {
+    if (jumps.byLine[jump.key] != jump) return false
+    mutableJumps().remove(jump.key)
+    return true
+  }
+
+  fun dropLastJump() {
+    val last = jumps.asList().lastOrNull() ?: return
+    mutableJumps().remove(last.key)
+  }
+
+  /**
+   * Returns a list with the same jumps, which shares them with this list until either list is changed
+   */
+  fun copy(): JumpList {
+    jumps.owners++
+    return JumpList(jumps)
+  }
+
+  private fun mutableJumps(): LinkedHashMap<Pair<String, Int>, Jump> {
+    if (jumps.owners > 1) {
+      jumps.owners--
+      jumps = Jumps(LinkedHashMap(jumps.byLine))
+    }
+    jumps.snapshot = null
+    return jumps.byLine
+  }
+
+  private val Jump.key: Pair<String, Int>
+    get() = filepath to line
+
+  /**
+   * The jumps of one or more lists. Jumps shared by more than one list are never changed
+   */
+  private class Jumps(val byLine: LinkedHashMap<Pair<String, Int>, Jump> = LinkedHashMap()) {
+    var owners = 1
+
+    // Jumps are looked up by index when navigating with <C-O> and <C-I>, which a linked map can't do
+    var snapshot: List<Jump>? = null
+
+    fun asList(): List<Jump> = snapshot ?: byLine.values.toList().also { snapshot = it }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.options.helpers
+
+import com.maddyhome.idea.vim.api.Options
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.vimscript.model.datatypes.VimString
+
+/**
+ * Provides the parsed value of the `'matchpairs'` option
+ *
+ * The option is a comma-separated list of `x:y` pairs. Parsing it for every `%` is wasteful, so the parsed table is
+ * cached by the option group and reset whenever the effective value changes.
+ */
+object MatchPairsOptionHelper {
+  fun getMatchPairs(editor: VimEditor): MatchPairs =
+    injector.optionGroup.getParsedEffectiveOptionValue(Options.matchpairs, editor, ::parse)
+
+  private fun parse(value: VimString): MatchPairs {
+    val pairs = value.value.split(',').filter { it.length == 3 }
+    return MatchPairs(
+      CharArray(pairs.size) { pairs[it][0] },
+      CharArray(pairs.size) { pairs[it][2] },
+    )
+  }
+}
+
+/**
+ * A table of opening and closing characters, as defined by `'matchpairs'`
+ *
+ * The opening character at index `i` is matched by the closing character at the same index. The table is small (three
+ * pairs by default), so a linear scan over a char array is cheaper than boxing chars for a map lookup.
+ */
+class MatchPairs(private val openChars: CharArray, private val closeChars: CharArray) {
+  /**
+   * All opening and closing characters, in a form suitable for [CharSequence.indexOfAny]
+   */
+  val allChars: CharArray = openChars + closeChars
+
+  fun isPairChar(c: Char): Boolean = openChars.contains(c) || closeChars.contains(c)
+
+  fun isOpenChar(c: Char): Boolean = openChars.contains(c)
+
+  /**
+   * Returns the matching character for an opening or closing character, or `null` if the character is not in the table
+   */
+  fun getMatchingChar(c: Char): Char? {
+    val openIndex = openChars.indexOf(c)
+    if (openIndex >= 0) return closeChars[openIndex]
+    val closeIndex = closeChars.indexOf(c)
+    if (closeIndex >= 0) return openChars[closeIndex]
+    return null
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.options.helpers
+
+import com.maddyhome.idea.vim.api.Options
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.helper.enumSetOf
+import com.maddyhome.idea.vim.vimscript.model.datatypes.VimString
+import java.util.*
+
+/**
+ * Provides the parsed value of the `'nrformats'` option, used by `CTRL-A` and `CTRL-X`
+ *
+ * The parsed set is cached by the option group and reset whenever the effective value changes.
+ */
+object NrFormatsOptionHelper {
+  fun getNrFormats(editor: VimEditor): EnumSet<NrFormat> =
+    injector.optionGroup.getParsedEffectiveOptionValue(Options.nrformats, editor, ::parse)
+
+  private fun parse(value: VimString): EnumSet<NrFormat> {
+    val formats = enumSetOf<NrFormat>()
+    value.value.split(',').forEach { name ->
+      NrFormat.fromString(name)?.let { formats.add(it) }
+    }
+    return formats
+  }
+}
+
+enum class NrFormat(val token: String) {
+  OCTAL("octal"),
+  HEX("hex"),
+  ALPHA("alpha"),
+  ;
+
+  companion object {
+    fun fromString(s: String): NrFormat? = entries.firstOrNull { it.token == s }
+  }
+}
@@ -25,8 +25,10 @@ import com.maddyhome.idea.vim.api.moveToMotion
 import com.maddyhome.idea.vim.api.setChangeMarks
 import com.maddyhome.idea.vim.api.setVisualSelectionMarks
 import com.maddyhome.idea.vim.common.TextRange
+import com.maddyhome.idea.vim.common.TextReplacement
 import com.maddyhome.idea.vim.diagnostic.VimLogger
 import com.maddyhome.idea.vim.diagnostic.vimLogger
+import com.maddyhome.idea.vim.helper.RepeatedCharSequence
 import com.maddyhome.idea.vim.helper.VimLockLabel
 import com.maddyhome.idea.vim.mark.VimMarkConstants.MARK_CHANGE_POS
 import com.maddyhome.idea.vim.options.OptionConstants
@@ -233,8 +235,9 @@ abstract class VimPutBase : VimPut {
     cursorAfter: Boolean,
   ): Pair<Int, VimCaret> {
     var updatedCaret = caret.moveToOffset(startOffset)
-    val insertedText = text.repeat(count)
-    updatedCaret = injector.changeGroup.insertText(editor, updatedCaret, insertedText)
+    // Don't build a string of the repeated text. The document copies what it needs from the view
+    val insertedText = if (count == 1) text else RepeatedCharSequence(text, count)
+    updatedCaret = injector.changeGroup.insertText(editor, updatedCaret, startOffset, insertedText)
 
     val endOffset = if (indent) {
       doIndent(editor, updatedCaret, context, startOffset, startOffset + insertedText.length)
@@ -308,54 +311,74 @@ abstract class VimPutBase : VimPut {
     val currentColumn = if (mode == SelectionType.LINE_WISE) 0 else startPosition.column
     var currentLine = startPosition.line
 
-    val lineCount = text.getLineBreakCount() + 1
-    var updated = caret
-    if (currentLine + lineCount >= editor.nativeLineCount()) {
-      val limit = currentLine + lineCount - editor.nativeLineCount()
-      repeat(limit) {
-        updated = updated.moveToOffset(editor.fileSize().toInt())
-        updated = injector.changeGroup.insertText(editor, updated, "\n")
-      }
+    // Work out all insertions against the unchanged document and apply them together in one write action. Inserting
+    // segment by segment would mean a separate write action and change mark update for every line of the block.
+    // Insertions are keyed by their offset in the unchanged document, and text at the same offset is kept in order
+    val insertions = TreeMap<Int, StringBuilder>()
+    fun insert(offset: Int, text: CharSequence) {
+      insertions.getOrPut(offset) { StringBuilder() }.append(text)
     }
 
+    // If the block extends past the end of the file, we append empty lines. They're part of the same change, so the
+    // block's segments for these lines are added to the text appended at the end of the file
+    val nativeLineCount = editor.nativeLineCount()
+    val lineCount = text.getLineBreakCount() + 1
+    val appendedLines = max(0, currentLine + lineCount - nativeLineCount)
+    val appendedText = Array(appendedLines) { StringBuilder("\n") }
+
     val maxLen = getMaxSegmentLength(text)
     val tokenizer = StringTokenizer(text, "\n")
+    val lineInsertOffset = editor.bufferPositionToOffset(BufferPosition(currentLine, currentColumn))
     var endOffset = startOffset
     while (tokenizer.hasMoreTokens()) {
       var segment = tokenizer.nextToken()
       var origSegment = segment
+      val isAppendedLine = currentLine >= nativeLineCount
+      val lineLength = if (isAppendedLine) 0 else editor.lineLength(currentLine)
 
       if (segment.length < maxLen) {
         segment += " ".repeat(maxLen - segment.length)
 
-        if (currentColumn != 0 && currentColumn < editor.lineLength(currentLine)) {
+        if (currentColumn != 0 && currentColumn < lineLength) {
           origSegment = segment
         }
       }
 
-      val pad = injector.engineEditorHelper.pad(editor, currentLine, currentColumn)
-
-      val insertOffset = editor.bufferPositionToOffset(BufferPosition(currentLine, currentColumn))
-      updated = updated.moveToOffset(insertOffset)
-      val insertedText = origSegment + segment.repeat(count - 1)
-      updated = injector.changeGroup.insertText(editor, updated, insertedText)
-      endOffset += insertedText.length
+      val insertedText = buildString(origSegment.length + segment.length * (count - 1)) {
+        append(origSegment)
+        repeat(count - 1) { append(segment) }
+      }
 
       if (mode == SelectionType.LINE_WISE) {
-        updated = updated.moveToOffset(endOffset)
-        updated = injector.changeGroup.insertText(editor, updated, "\n")
-        ++endOffset
+        // Each segment is inserted as a new line, above the line the previous segment was inserted above
+        insert(lineInsertOffset, insertedText)
+        insert(lineInsertOffset, "\n")
+        endOffset += insertedText.length + 1
       } else {
-        if (pad.isNotEmpty()) {
-          updated = updated.moveToOffset(insertOffset)
-          updated = injector.changeGroup.insertText(editor, updated, pad)
-          endOffset += pad.length
+        val pad = when {
+          !isAppendedLine -> injector.engineEditorHelper.pad(editor, currentLine, currentColumn)
+          currentColumn > 0 -> editor.indentConfig.createIndentBySize(currentColumn)
+          else -> ""
+        }
+        if (isAppendedLine) {
+          appendedText[currentLine - nativeLineCount].append(pad).append(insertedText)
+        } else {
+          val insertOffset = editor.bufferPositionToOffset(BufferPosition(currentLine, currentColumn))
+          insert(insertOffset, pad)
+          insert(insertOffset, insertedText)
         }
+        endOffset += insertedText.length + pad.length
       }
 
       ++currentLine
     }
 
+    appendedText.forEach { insert(editor.fileSize().toInt(), it) }
+
+    val replacements = insertions.map { (offset, insertion) -> TextReplacement(offset, offset, insertion) }
+    injector.changeGroup.replaceTexts(editor, caret, replacements)
+    var updated = caret
+
     if (indent) endOffset = doIndent(editor, updated, context, startOffset, endOffset)
     updated = moveCaretToEndPosition(editor, updated, startOffset, endOffset, type, mode, cursorAfter)
 
@@ -140,10 +140,10 @@ class VimRegex(pattern: String) {
     to avoid the cursor getting stuck at line ends
     */
     val newStartIndex =
-      if (startIndex + 1 == editor.getLineEndOffset(editor.offsetToBufferPosition(startIndex).line)) startIndex + 1
+      if (startIndex + 1 == editor.getLineEndOffset(editor.offsetToBufferLine(startIndex))) startIndex + 1
       else startIndex
 
-    val lineStartIndex = editor.getLineStartOffset(editor.offsetToBufferPosition(newStartIndex).line)
+    val lineStartIndex = editor.offsetToLineStartOffset(newStartIndex)
     var index = lineStartIndex
     while (index <= editor.text().length) {
       val result = simulateNonExactNFA(editor, index, options)
@@ -163,7 +163,7 @@ class VimRegex(pattern: String) {
         }
         // no match starting here, try the next line
         is VimMatchResult.Failure -> {
-          val nextLine = editor.offsetToBufferPosition(index).line + 1
+          val nextLine = editor.offsetToBufferLine(index) + 1
           if (nextLine >= editor.lineCount()) break
           editor.getLineStartOffset(nextLine)
         }
@@ -196,7 +196,7 @@ class VimRegex(pattern: String) {
     startIndex: Int = 0,
     options: EnumSet<VimRegexOptions> = noneOfEnum(),
   ): VimMatchResult {
-    val startLine = editor.offsetToBufferPosition(startIndex).line
+    val startLine = editor.offsetToBufferLine(startIndex)
     val result = findLastMatchInLine(editor, startLine, startIndex - 1, options)
     if (result is VimMatchResult.Success && result.range.startOffset < startIndex) {
       // there is a match at this line that starts before the startIndex
@@ -293,7 +293,7 @@ class VimRegex(pattern: String) {
          * No match found starting on this index, try searching on next line
          */
         is VimMatchResult.Failure -> {
-          val nextLine = editor.offsetToBufferPosition(index).line + 1
+          val nextLine = editor.offsetToBufferLine(index) + 1
           if (nextLine >= editor.lineCount()) break
           index = editor.getLineStartOffset(nextLine)
         }
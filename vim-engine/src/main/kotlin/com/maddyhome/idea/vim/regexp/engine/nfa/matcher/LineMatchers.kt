@@ -20,7 +20,7 @@ internal class AtLineMatcher(private val lineNumber: Int) : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (editor.offsetToBufferPosition(index).line + 1 == lineNumber) MatcherResult.Success(0)
+    return if (editor.offsetToBufferLine(index) + 1 == lineNumber) MatcherResult.Success(0)
     else MatcherResult.Failure
   }
 
@@ -37,7 +37,7 @@ internal class BeforeLineMatcher(private val lineNumber: Int) : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (editor.offsetToBufferPosition(index).line + 1 < lineNumber) MatcherResult.Success(0)
+    return if (editor.offsetToBufferLine(index) + 1 < lineNumber) MatcherResult.Success(0)
     else MatcherResult.Failure
   }
 
@@ -54,7 +54,7 @@ internal class AfterLineMatcher(private val lineNumber: Int) : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (editor.offsetToBufferPosition(index).line + 1 > lineNumber) MatcherResult.Success(0)
+    return if (editor.offsetToBufferLine(index) + 1 > lineNumber) MatcherResult.Success(0)
     else MatcherResult.Failure
   }
 
@@ -71,9 +71,9 @@ internal class AtLineCursorMatcher : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (possibleCursors.any { editor.offsetToBufferPosition(index).line == editor.offsetToBufferPosition(it.offset).line }) {
+    return if (possibleCursors.any { editor.offsetToBufferLine(index) == editor.offsetToBufferLine(it.offset) }) {
       val newPossibleCursors =
-        possibleCursors.filter { editor.offsetToBufferPosition(index).line == editor.offsetToBufferPosition(it.offset).line }
+        possibleCursors.filter { editor.offsetToBufferLine(index) == editor.offsetToBufferLine(it.offset) }
       possibleCursors.clear()
       possibleCursors.addAll(newPossibleCursors)
       MatcherResult.Success(0)
@@ -93,9 +93,9 @@ internal class BeforeLineCursorMatcher : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (possibleCursors.any { editor.offsetToBufferPosition(index).line < editor.offsetToBufferPosition(it.offset).line }) {
+    return if (possibleCursors.any { editor.offsetToBufferLine(index) < editor.offsetToBufferLine(it.offset) }) {
       val newPossibleCursors =
-        possibleCursors.filter { editor.offsetToBufferPosition(index).line < editor.offsetToBufferPosition(it.offset).line }
+        possibleCursors.filter { editor.offsetToBufferLine(index) < editor.offsetToBufferLine(it.offset) }
       possibleCursors.clear()
       possibleCursors.addAll(newPossibleCursors)
       MatcherResult.Success(0)
@@ -115,9 +115,9 @@ internal class AfterLineCursorMatcher : Matcher {
     isCaseInsensitive: Boolean,
     possibleCursors: MutableList<VimCaret>,
   ): MatcherResult {
-    return if (possibleCursors.any { editor.offsetToBufferPosition(index).line > editor.offsetToBufferPosition(it.offset).line }) {
+    return if (possibleCursors.any { editor.offsetToBufferLine(index) > editor.offsetToBufferLine(it.offset) }) {
       val newPossibleCursors =
-        possibleCursors.filter { editor.offsetToBufferPosition(index).line > editor.offsetToBufferPosition(it.offset).line }
+        possibleCursors.filter { editor.offsetToBufferLine(index) > editor.offsetToBufferLine(it.offset) }
       possibleCursors.clear()
       possibleCursors.addAll(newPossibleCursors)
       MatcherResult.Success(0)
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.register
+
+/**
+ * Stores the registers by name, allowing registers restored from saved state to be loaded on first use
+ *
+ * A saved register can hold a large amount of text, and creating a [Register] converts all of it to keys. Rather than
+ * doing this for every saved register at startup, the state loader adds a loader for each register with [setLoader],
+ * and the register is only created when it's first read. Listing all registers, e.g. with `:registers`, loads them
+ * all. The loader usually holds on to the register's saved state, and is dropped once the register is loaded or set.
+ */
+class RegisterStore {
+  /**
+   * Creates a register when it's first read. Returns null if the register can't be created
+   */
+  fun interface Loader {
+    fun load(): Register?
+  }
+
+  private val registers = HashMap<Char, Register>()
+  private val loaders = HashMap<Char, Loader>()
+
+  /**
+   * The names of all registers, including those that haven't been loaded yet
+   */
+  val names: Set<Char>
+    get() = if (loaders.isEmpty()) registers.keys else registers.keys + loaders.keys
+
+  /**
+   * All registers, loading any that haven't been loaded yet
+   */
+  val values: Collection<Register>
+    get() {
+      loaders.keys.toList().forEach { load(it) }
+      return registers.values
+    }
+
+  operator fun get(name: Char): Register? = registers[name] ?: load(name)
+
+  operator fun set(name: Char, register: Register) {
+    loaders.remove(name)
+    registers[name] = register
+  }
+
+  /**
+   * Adds a register that is created by [loader] when it's first read
+   */
+  fun setLoader(name: Char, loader: Loader) {
+    registers.remove(name)
+    loaders[name] = loader
+  }
+
+  /**
+   * Returns the loader of a register that hasn't been read or set since its loader was added, or null
+   */
+  fun getLoader(name: Char): Loader? = loaders[name]
+
+  fun isLoaded(name: Char): Boolean = name !in loaders
+
+  fun clear() {
+    registers.clear()
+    loaders.clear()
+  }
+
+  private fun load(name: Char): Register? {
+    val loader = loaders.remove(name) ?: return null
+    return loader.load()?.also { registers[name] = it }
+  }
+}
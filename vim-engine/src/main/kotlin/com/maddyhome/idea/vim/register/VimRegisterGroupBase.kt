@@ -59,7 +59,7 @@ abstract class VimRegisterGroupBase : VimRegisterGroup {
   protected var recordList: MutableList<KeyStroke>? = null
 
   @JvmField
-  protected val myRegisters: java.util.HashMap<Char, Register> = HashMap()
+  protected val myRegisters: RegisterStore = RegisterStore()
 
   @JvmField
   protected var defaultRegisterChar: Char = UNNAMED_REGISTER
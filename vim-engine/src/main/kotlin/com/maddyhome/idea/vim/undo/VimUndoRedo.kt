@@ -14,4 +14,14 @@ import com.maddyhome.idea.vim.api.VimEditor
 sealed interface VimUndoRedo {
   fun undo(editor: VimEditor, context: ExecutionContext): Boolean
   fun redo(editor: VimEditor, context: ExecutionContext): Boolean
+
+  /**
+   * Runs [action] as a single undo step named [name]
+   *
+   * Compound commands such as `:s`, `:g`, `:normal` or repeating a change with `.` make many separate changes to the
+   * document, which should all be undone by a single `u`. Transactions can be nested, and only the outermost
+   * transaction of an editor creates the undo step. The default implementation relies on the IDE grouping all changes
+   * of a command.
+   */
+  fun <T> undoTransaction(editor: VimEditor, name: String, action: () -> T): T = action()
 }
@@ -9,5 +9,5 @@
 package com.maddyhome.idea.vim.vimscript.model.commands
 
 object EngineExCommandProvider : ExCommandProvider {
-  override val exCommandsFileName: String = "engine_ex_commands.json"
+  override val exCommandsFileName: String = "engine_ex_commands.txt"
 }
\ No newline at end of file
@@ -8,19 +8,17 @@
 
 package com.maddyhome.idea.vim.vimscript.model.commands
 
-import kotlinx.serialization.ExperimentalSerializationApi
-import kotlinx.serialization.json.Json
-import kotlinx.serialization.json.decodeFromStream
+import com.maddyhome.idea.vim.helper.readRegistryFile
 import java.io.InputStream
 
 interface ExCommandProvider {
   val exCommandsFileName: String
 
-  @OptIn(ExperimentalSerializationApi::class)
   fun getCommands(): Map<String, LazyExCommandInstance> {
     val classLoader = this.javaClass.classLoader
-    val commandToClass: Map<String, String> = Json.decodeFromStream(getFile())
-    return commandToClass.entries.associate { it.key to LazyExCommandInstance(it.value, classLoader) }
+    return readRegistryFile(getFile()).associate { (command, className) ->
+      command to LazyExCommandInstance(className, classLoader)
+    }
   }
 
   private fun getFile(): InputStream {
@@ -11,29 +11,114 @@ package com.maddyhome.idea.vim.vimscript.model.commands
 import com.maddyhome.idea.vim.helper.indexOfOrNull
 import com.maddyhome.idea.vim.helper.lastIndexOfOrNull
 
-// TODO do we really need a tree structure here?
+/**
+ * A character trie of Ex command names and the abbreviations that resolve to them
+ *
+ * A command pattern such as `s[ubstitute]` adds a node for each character. The nodes from the required part to the
+ * end of the full name resolve to the full command, so looking up an abbreviation or completing a prefix takes one
+ * step per character, without storing a string for every abbreviation. Children are kept sorted by character, so a
+ * depth first walk lists full command names in alphabetical order.
+ */
 class ExCommandTree {
-  private val abbrevToCommand = mutableMapOf<String, String>()
-  private val commandToInstance = mutableMapOf<String, LazyExCommandInstance>()
+  private class Node {
+    // Sorted by character for binary search. The arrays are only allocated when the first child is added, so leaf
+    // nodes don't allocate empty tables.
+    private var childKeys: CharArray? = null
+    private var childNodes: Array<Node?>? = null
+    private var childCount = 0
+
+    /** The full command name, if a command ends at this node */
+    var fullCommand: String? = null
+
+    var instance: LazyExCommandInstance? = null
+
+    /** The node of the full command that an abbreviation ending at this node resolves to */
+    var resolvesTo: Node? = null
+
+    fun getChild(key: Char): Node? {
+      val position = findChild(key)
+      return if (position >= 0) childNodes!![position] else null
+    }
+
+    fun getOrAddChild(key: Char): Node {
+      val position = findChild(key)
+      if (position >= 0) return childNodes!![position]!!
+
+      val keys = childKeys?.takeIf { childCount < it.size } ?: growChildren()
+      val nodes = childNodes!!
+      val insertAt = -position - 1
+      System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt)
+      System.arraycopy(nodes, insertAt, nodes, insertAt + 1, childCount - insertAt)
+      val child = Node()
+      keys[insertAt] = key
+      nodes[insertAt] = child
+      childCount++
+      return child
+    }
+
+    fun collectFullCommands(result: MutableList<String>) {
+      fullCommand?.let { result.add(it) }
+      val nodes = childNodes ?: return
+      for (i in 0 until childCount) {
+        nodes[i]!!.collectFullCommands(result)
+      }
+    }
+
+    /**
+     * Returns the position of the key, or `-(insertion point) - 1` if not found
+     */
+    private fun findChild(key: Char): Int {
+      val keys = childKeys ?: return -1
+      var low = 0
+      var high = childCount - 1
+      while (low <= high) {
+        val mid = (low + high) ushr 1
+        val midKey = keys[mid]
+        when {
+          midKey < key -> low = mid + 1
+          midKey > key -> high = mid - 1
+          else -> return mid
+        }
+      }
+      return -(low + 1)
+    }
+
+    private fun growChildren(): CharArray {
+      val newSize = if (childCount == 0) 2 else childCount * 2
+      val keys = (childKeys ?: CharArray(0)).copyOf(newSize)
+      childKeys = keys
+      childNodes = (childNodes ?: arrayOfNulls(0)).copyOf(newSize)
+      return keys
+    }
+  }
+
+  private val root = Node()
 
   fun addCommand(commandsPattern: String, lazyInstance: LazyExCommandInstance) {
     val subCommands = parseCommandPattern(commandsPattern)
     for ((requiredPart, optionalPart) in subCommands) {
-      val fullCommand = requiredPart + optionalPart
-      commandToInstance[fullCommand] = lazyInstance
-
-      for (i in (0..optionalPart.length)) {
-        abbrevToCommand[requiredPart + optionalPart.substring(0, i)] = fullCommand
+      var node = root
+      for (char in requiredPart) {
+        node = node.getOrAddChild(char)
+      }
+      val abbreviationNodes = mutableListOf(node)
+      for (char in optionalPart) {
+        node = node.getOrAddChild(char)
+        abbreviationNodes.add(node)
       }
+
+      node.fullCommand = requiredPart + optionalPart
+      node.instance = lazyInstance
+      abbreviationNodes.forEach { it.resolvesTo = node }
     }
   }
 
   fun getCommand(command: String): LazyExCommandInstance? {
-    return abbrevToCommand[command]?.let { commandToInstance[it] }
+    return findNode(command)?.resolvesTo?.instance
   }
 
   fun getFullCommandName(abbreviation: String): String? {
-    return abbrevToCommand[abbreviation]
+    return findNode(abbreviation)?.resolvesTo?.fullCommand
   }
 
   /**
@@ -41,7 +126,16 @@ class ExCommandTree {
    * order to cycle through matches deterministically (e.g. `:set` -> `set`, `setglobal`, `sethandler`, ...).
    */
   fun findFullCommandsByPrefix(prefix: String): List<String> {
-    return commandToInstance.keys.filter { it.startsWith(prefix) }.sorted()
+    val node = findNode(prefix) ?: return emptyList()
+    return mutableListOf<String>().also { node.collectFullCommands(it) }
+  }
+
+  private fun findNode(text: String): Node? {
+    var node = root
+    for (char in text) {
+      node = node.getChild(char) ?: return null
+    }
+    return node
   }
 
   private fun parseCommandPattern(commandsPattern: String): List<Pair<String, String>> {
@@ -49,7 +49,7 @@ data class GlobalCommand(val range: Range, val modifier: CommandModifier, val ar
     editor.removeSecondaryCarets()
     val caret = editor.currentCaret()
     val lineRange = getLineRange(editor, caret)
-    if (!processGlobalCommand(editor, context, lineRange)) {
+    if (!injector.undo.undoTransaction(editor, "Vim Global") { processGlobalCommand(editor, context, lineRange) }) {
       result = ExecutionResult.Error
     }
     return result
@@ -154,7 +154,7 @@ data class GlobalCommand(val range: Range, val modifier: CommandModifier, val ar
   }
 
   private fun VimMatchResult.Success.getLine(editor: VimEditor): Int {
-    return editor.offsetToBufferPosition(range.startOffset).line
+    return editor.offsetToBufferLine(range.startOffset)
   }
 
   private fun globalExe(
@@ -16,8 +16,10 @@ import com.maddyhome.idea.vim.api.injector
 import com.maddyhome.idea.vim.command.OperatorArguments
 import com.maddyhome.idea.vim.ex.ranges.Range
 import com.maddyhome.idea.vim.key.KeySource
+import com.maddyhome.idea.vim.macro.MacroPlaybackPlan
 import com.maddyhome.idea.vim.state.mode.Mode
 import com.maddyhome.idea.vim.vimscript.model.ExecutionResult
+import javax.swing.KeyStroke
 
 // todo make it for each caret
 @ExCommand(command = "norm[al]")
@@ -42,7 +44,25 @@ data class NormalCommand(val range: Range, val modifier: CommandModifier, val ar
       editor.mode = Mode.NORMAL()
     }
 
-    for (line in range.startLine..range.endLine) {
+    // The keys are parsed once, and replayed for each line in the range. UI updates are made once, at the end
+    val keys = injector.parser.stringToKeys(argument)
+    return injector.undo.undoTransaction(editor, "Vim Normal") {
+      injector.macro.runBulkReplay(editor) {
+        replayKeys(editor, context, keys, range.startLine..range.endLine, rangeSpecified, modeBefore)
+      }
+    }
+  }
+
+  private fun replayKeys(
+    editor: VimEditor,
+    context: ExecutionContext,
+    keys: List<KeyStroke>,
+    lines: IntRange,
+    rangeSpecified: Boolean,
+    modeBefore: Mode,
+  ): ExecutionResult {
+    val plan = if (modifier == CommandModifier.BANG) null else MacroPlaybackPlan.getInstance(keys)
+    for (line in lines) {
       if (editor.lineCount() < line) {
         break
       }
@@ -53,12 +73,11 @@ data class NormalCommand(val range: Range, val modifier: CommandModifier, val ar
       }
 
       // Perform operations
-      val keys = injector.parser.stringToKeys(argument)
       val keyHandler = KeyHandler.getInstance()
       keyHandler.reset(editor)
       for (key in keys) {
-        val keySource =
-          if (modifier == CommandModifier.BANG) KeySource.NORMAL_COMMAND_NOT_MAPPED else KeySource.NORMAL_COMMAND
+        val keySource = plan?.getKeySource(KeySource.NORMAL_COMMAND, KeySource.NORMAL_COMMAND_NOT_MAPPED)
+          ?: KeySource.NORMAL_COMMAND_NOT_MAPPED
         keyHandler.handleKey(editor, key, keySource, context, keyHandler.keyHandlerState)
       }
 
@@ -18,7 +18,6 @@ import com.maddyhome.idea.vim.ex.ExException
 import com.maddyhome.idea.vim.ex.ranges.LineRange
 import com.maddyhome.idea.vim.ex.ranges.Range
 import com.maddyhome.idea.vim.vimscript.model.ExecutionResult
-import java.util.*
 
 /**
  * @author Alex Selesse
@@ -39,11 +38,10 @@ data class SortCommand(val range: Range, val modifier: CommandModifier, val argu
     operatorArguments: OperatorArguments,
   ): ExecutionResult {
     val sortOption = parseSortOption(argument)
-    val lineComparator = LineComparator(sortOption.ignoreCase, sortOption.numeric, sortOption.reverse)
     var worked = true
     for (caret in editor.carets()) {
       val range = getSortLineRange(editor, caret)
-      if (!injector.changeGroup.sortRange(editor, caret, range, lineComparator, sortOption)) {
+      if (!injector.changeGroup.sortRange(editor, caret, range, sortOption)) {
         worked = false
       }
       caret.moveToInlayAwareOffset(injector.motion.moveCaretToLineStartSkipLeading(editor, range.startLine))
@@ -96,42 +94,6 @@ data class SortCommand(val range: Range, val modifier: CommandModifier, val argu
     }
     return null
   }
-
-  private class LineComparator(
-    private val ignoreCase: Boolean,
-    private val numeric: Boolean,
-    private val reverse: Boolean,
-  ) : Comparator<String> {
-
-    override fun compare(o1: String, o2: String): Int {
-      var o1ToCompare = o1
-      var o2ToCompare = o2
-      if (reverse) {
-        val tmp = o2ToCompare
-        o2ToCompare = o1ToCompare
-        o1ToCompare = tmp
-      }
-      if (ignoreCase) {
-        o1ToCompare = o1ToCompare.uppercase(Locale.getDefault())
-        o2ToCompare = o2ToCompare.uppercase(Locale.getDefault())
-      }
-      return if (numeric) {
-        // About natural sort order - https://blog.codinghorror.com/sorting-for-humans-natural-sort-order/
-        val n1 = injector.searchGroup.findDecimalNumber(o1ToCompare)
-        val n2 = injector.searchGroup.findDecimalNumber(o2ToCompare)
-        if (n1 == null) {
-          if (n2 == null) {
-            // no number, fallback to default
-            o1ToCompare.compareTo(o2ToCompare)
-          } else -1
-        } else {
-          if (n2 == null) 1 else n1.compareTo(n2) // what if tied?
-        }
-      } else {
-        o1ToCompare.compareTo(o2ToCompare)
-      }
-    }
-  }
 }
 
 data class SortOption(
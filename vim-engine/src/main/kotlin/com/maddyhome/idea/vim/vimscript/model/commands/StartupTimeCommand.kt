@@ -0,0 +1,71 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.vimscript.model.commands
+
+import com.intellij.vim.annotations.ExCommand
+import com.maddyhome.idea.vim.api.ExecutionContext
+import com.maddyhome.idea.vim.api.VimEditor
+import com.maddyhome.idea.vim.api.injector
+import com.maddyhome.idea.vim.command.OperatorArguments
+import com.maddyhome.idea.vim.diagnostic.StartupTimeRecorder
+import com.maddyhome.idea.vim.ex.exExceptionMessage
+import com.maddyhome.idea.vim.ex.ranges.Range
+import com.maddyhome.idea.vim.vimscript.model.ExecutionResult
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import java.util.Locale
+
+/**
+ * Shows how long each phase of IdeaVim startup took, including each line of `~/.ideavimrc`
+ *
+ * IdeaVim specific, similar to Vim's `--startuptime`. With the `json` argument, the records are output as JSON.
+ */
+@ExCommand(command = "ideavimstartuptime")
+data class StartupTimeCommand(val range: Range, val modifier: CommandModifier, val argument: String) :
+  Command.SingleExecution(range, modifier, argument) {
+
+  override val argFlags: CommandHandlerFlags =
+    flags(RangeFlag.RANGE_FORBIDDEN, ArgumentFlag.ARGUMENT_OPTIONAL, Access.READ_ONLY)
+
+  override fun processCommand(
+    editor: VimEditor,
+    context: ExecutionContext,
+    operatorArguments: OperatorArguments,
+  ): ExecutionResult {
+    val entries = StartupTimeRecorder.entries
+    val text = when (argument.trim()) {
+      "" -> formatTable(entries)
+      "json" -> Json.encodeToString(entries)
+      else -> throw exExceptionMessage("E475", argument)
+    }
+
+    injector.outputPanel.clear(editor, context)
+    injector.outputPanel.output(editor, context, text)
+    return ExecutionResult.Success
+  }
+
+  private fun formatTable(entries: List<StartupTimeRecorder.Entry>): String {
+    if (entries.isEmpty()) return "No startup times recorded"
+
+    return buildString {
+      appendLine("times in msec, allocations in KB")
+      appendLine("    start  duration  allocated  phase/line")
+      for (entry in entries) {
+        append(formatMillis(entry.startNanos).padStart(9))
+        append(formatMillis(entry.durationNanos).padStart(10))
+        append((if (entry.allocatedBytes < 0) "-" else (entry.allocatedBytes / 1024).toString()).padStart(11))
+        append("  ")
+        append("  ".repeat(entry.depth))
+        appendLine(entry.name)
+      }
+    }
+  }
+
+  private fun formatMillis(nanos: Long) = String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0)
+}
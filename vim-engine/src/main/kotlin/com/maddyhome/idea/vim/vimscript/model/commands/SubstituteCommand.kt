@@ -32,19 +32,21 @@ data class SubstituteCommand(val range: Range, val argument: String, val command
     operatorArguments: OperatorArguments,
   ): ExecutionResult {
     var result = true
-    for (caret in editor.nativeCarets()) {
-      val lineRange = getLineRange(editor, caret)
-      if (!injector.searchGroup.processSubstituteCommand(
-          editor,
-          caret,
-          context,
-          lineRange,
-          command,
-          argument,
-          this.vimContext
-        )
-      ) {
-        result = false
+    injector.undo.undoTransaction(editor, "Vim Substitute") {
+      for (caret in editor.nativeCarets()) {
+        val lineRange = getLineRange(editor, caret)
+        if (!injector.searchGroup.processSubstituteCommand(
+            editor,
+            caret,
+            context,
+            lineRange,
+            command,
+            argument,
+            this.vimContext
+          )
+        ) {
+          result = false
+        }
       }
     }
     return if (result) ExecutionResult.Success else ExecutionResult.Error
@@ -9,5 +9,5 @@
 package com.maddyhome.idea.vim.vimscript.model.functions
 
 object EngineFunctionProvider : VimscriptFunctionProvider {
-  override val functionListFileName: String = "engine_vimscript_functions.json"
+  override val functionListFileName: String = "engine_vimscript_functions.txt"
 }
\ No newline at end of file
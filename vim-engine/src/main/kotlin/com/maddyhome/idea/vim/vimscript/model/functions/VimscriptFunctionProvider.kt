@@ -8,19 +8,15 @@
 
 package com.maddyhome.idea.vim.vimscript.model.functions
 
-import kotlinx.serialization.ExperimentalSerializationApi
-import kotlinx.serialization.json.Json
-import kotlinx.serialization.json.decodeFromStream
+import com.maddyhome.idea.vim.helper.readRegistryFile
 import java.io.InputStream
 
 interface VimscriptFunctionProvider {
   val functionListFileName: String
 
-  @OptIn(ExperimentalSerializationApi::class)
   fun getFunctions(): Collection<LazyVimscriptFunction> {
     val classLoader = this.javaClass.classLoader
-    val functionDict: Map<String, String> = Json.decodeFromStream(getFile())
-    return functionDict.map { LazyVimscriptFunction(it.key, it.value, classLoader) }
+    return readRegistryFile(getFile()).map { (name, className) -> LazyVimscriptFunction(name, className, classLoader) }
   }
 
   private fun getFile(): InputStream {
@@ -15,6 +15,9 @@ class DeletionInfo {
   // First number is deletion offset, the second one - number of deleted chars
   private val deletions = mutableListOf<Pair<Int, Int>>()
 
+  val registeredDeletions: List<Pair<Int, Int>>
+    get() = deletions
+
   fun registerDeletion(startOffset: Int, length: Int) {
     deletions.add(Pair(startOffset, length))
   }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+
+package com.maddyhome.idea.vim.vimscript.parser
+
+import com.maddyhome.idea.vim.diagnostic.VimLogger
+import com.maddyhome.idea.vim.diagnostic.vimLogger
+import kotlinx.serialization.Serializable
+import kotlinx.serialization.SerializationException
+import kotlinx.serialization.json.Json
+import java.io.IOException
+import java.nio.file.Path
+import java.security.MessageDigest
+import kotlin.io.path.createDirectories
+import kotlin.io.path.deleteIfExists
+import kotlin.io.path.exists
+import kotlin.io.path.getLastModifiedTime
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.readText
+import kotlin.io.path.writeText
+
+/**
+ * The outcome of error recovery for a script with syntax errors
+ *
+ * [text] is the script with the lines that had errors removed, which parses without errors. [deletions] are the
+ * offsets and lengths of the removed text, used to map ranges back to the original script, and [errors] are the
+ * user-facing errors reported for the original script.
+ */
+@Serializable
+data class ScriptRecovery(
+  val text: String,
+  val deletions: List<Pair<Int, Int>>,
+  val errors: List<String>,
+)
+
+/**
+ * Remembers how error recovery fixed a script, so parsing the same script again takes a single pass
+ *
+ * When a sourced file has syntax errors, the parser removes the lines with errors and parses the script again, up to
+ * several times. A vimrc doesn't change often, so the result is stored in [directory], keyed by a hash of the script
+ * text and the IdeaVim [version], and the next startup can parse the fixed text straight away.
+ */
+class ScriptRecoveryCache(private val directory: Path, private val version: String) {
+  private val logger: VimLogger by lazy { vimLogger<ScriptRecoveryCache>() }
+
+  fun get(script: String): ScriptRecovery? {
+    val file = fileFor(script)
+    if (!file.exists()) return null
+    return try {
+      Json.decodeFromString(ScriptRecovery.serializer(), file.readText())
+    } catch (e: IOException) {
+      logger.warn("Cannot read cached script recovery ${file}: ${e.message}")
+      null
+    } catch (e: SerializationException) {
+      logger.warn("Cannot decode cached script recovery ${file}: ${e.message}")
+      file.deleteIfExists()
+      null
+    } catch (e: IllegalArgumentException) {
+      logger.warn("Cannot decode cached script recovery ${file}: ${e.message}")
+      file.deleteIfExists()
+      null
+    }
+  }
+
+  fun put(script: String, recovery: ScriptRecovery) {
+    try {
+      directory.createDirectories()
+      fileFor(script).writeText(Json.encodeToString(ScriptRecovery.serializer(), recovery))
+      removeOldEntries()
+    } catch (e: IOException) {
+      logger.warn("Cannot write script recovery cache to ${directory}: ${e.message}")
+    }
+  }
+
+  private fun removeOldEntries() {
+    val entries = directory.listDirectoryEntries("*$EXTENSION")
+    if (entries.size <= MAX_ENTRIES) return
+    entries.sortedByDescending { it.getLastModifiedTime() }.drop(MAX_ENTRIES).forEach { it.deleteIfExists() }
+  }
+
+  private fun fileFor(script: String): Path {
+    val digest = MessageDigest.getInstance("SHA-256")
+    digest.update(version.toByteArray())
+    digest.update(0)
+    digest.update(script.toByteArray())
+    return directory.resolve(digest.digest().joinToString("") { "%02x".format(it) } + EXTENSION)
+  }
+
+  private companion object {
+    private const val EXTENSION = ".json"
+    private const val MAX_ENTRIES = 8
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.diagnostic
+
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class StartupTimeRecorderTest {
+  @Test
+  fun `test nested phases are recorded in start order`() {
+    val result = StartupTimeRecorder.recordStartup("startup") {
+      assertTrue(StartupTimeRecorder.isRecording)
+      StartupTimeRecorder.measure("first") {
+        StartupTimeRecorder.measureLine({ "line 1: set nu" }) { }
+      }
+      StartupTimeRecorder.measure("second") { 42 }
+    }
+
+    assertEquals(42, result)
+    assertFalse(StartupTimeRecorder.isRecording)
+    val entries = StartupTimeRecorder.entries
+    assertEquals(listOf("startup", "first", "line 1: set nu", "second"), entries.map { it.name })
+    assertEquals(listOf(0, 1, 2, 1), entries.map { it.depth })
+    assertEquals(StartupTimeRecorder.Kind.LINE, entries[2].kind)
+    assertTrue(entries[0].durationNanos >= entries[1].durationNanos + entries[3].durationNanos)
+  }
+
+  @Test
+  fun `test nothing is recorded outside of startup`() {
+    StartupTimeRecorder.recordStartup("startup") { }
+    val entries = StartupTimeRecorder.entries
+
+    var lineNameCreated = false
+    StartupTimeRecorder.measure("phase") { }
+    StartupTimeRecorder.measureLine({ lineNameCreated = true; "line" }) { }
+
+    assertFalse(lineNameCreated)
+    assertEquals(entries, StartupTimeRecorder.entries)
+  }
+}
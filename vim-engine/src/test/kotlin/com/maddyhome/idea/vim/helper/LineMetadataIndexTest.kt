@@ -0,0 +1,131 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.helper
+
+import com.maddyhome.idea.vim.common.Direction
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class LineMetadataIndexTest {
+
+  private fun indexOf(text: String) = LineMetadataIndex().also { it.update(text, 0) }
+
+  @Test
+  fun `test line start offsets and line lookup`() {
+    val index = indexOf("one\ntwo\n\nthree")
+    assertEquals(4, index.size)
+    assertEquals(listOf(0, 4, 8, 9), (0 until index.size).map { index.getLineStartOffset(it) })
+    assertEquals(0, index.getLine(3))
+    assertEquals(1, index.getLine(4))
+    assertEquals(2, index.getLine(8))
+    assertEquals(3, index.getLine(14))
+  }
+
+  @Test
+  fun `test empty and blank lines`() {
+    val index = indexOf("one\n\n  \t\ntwo\n   ")
+    assertFalse(index.isLineEmpty(0, true))
+    assertTrue(index.isLineEmpty(1, false))
+    assertFalse(index.isLineEmpty(2, false))
+    assertTrue(index.isLineEmpty(2, true))
+    // A whitespace-only last line without a trailing new line is not blank
+    assertFalse(index.isLineEmpty(4, true))
+  }
+
+  @Test
+  fun `test find empty and non-empty lines`() {
+    val index = indexOf("a\n\n\nb\nc\n  \nd")
+    assertEquals(1, index.findEmptyLine(0, Direction.FORWARDS, false))
+    assertEquals(2, index.findEmptyLine(2, Direction.FORWARDS, false))
+    assertNull(index.findEmptyLine(3, Direction.FORWARDS, false))
+    assertEquals(5, index.findEmptyLine(3, Direction.FORWARDS, true))
+    assertEquals(2, index.findEmptyLine(4, Direction.BACKWARDS, false))
+    assertNull(index.findEmptyLine(0, Direction.BACKWARDS, true))
+
+    assertEquals(3, index.findNonEmptyLine(1, Direction.FORWARDS, false))
+    assertEquals(0, index.findNonEmptyLine(2, Direction.BACKWARDS, false))
+    assertEquals(4, index.findNonEmptyLine(4, Direction.FORWARDS, false))
+    assertEquals(6, index.findNonEmptyLine(5, Direction.FORWARDS, true))
+  }
+
+  @Test
+  fun `test sentence end characters`() {
+    val index = indexOf("no end\nend.\nwhat?\n\u000C\nnope")
+    assertEquals(listOf(false, true, true, true, false), (0 until index.size).map { index.hasSentenceEndChars(it) })
+  }
+
+  @Test
+  fun `test index is rebuilt only when modification stamp changes`() {
+    val index = indexOf("one\ntwo")
+
+    // Same stamp, so the text isn't even looked at
+    index.update("one\n\ntwo", 0)
+    assertEquals(2, index.size)
+
+    index.update("one\n\ntwo", 1)
+    assertSameIndex(indexOf("one\n\ntwo"), index)
+  }
+
+  @Test
+  fun `test changes only rescan the changed lines`() {
+    val index = indexOf("one\ntwo\nthree")
+
+    // Replace "two" with "2\n\n2." and check the index without rebuilding it from the text
+    index.documentChanged(4, 3, 5, 0, 1)
+    index.update("one\n2\n\n2.\nthree", 1)
+    assertSameIndex(indexOf("one\n2\n\n2.\nthree"), index)
+  }
+
+  @Test
+  fun `test missed change rebuilds the index`() {
+    val index = indexOf("one\ntwo")
+    index.update("one\n\ntwo", 1)
+
+    // This change starts from stamp 2, so the change to stamp 2 was missed
+    index.documentChanged(0, 0, 1, 2, 3)
+    index.update("\none\n\n\ntwo", 3)
+    assertSameIndex(indexOf("\none\n\n\ntwo"), index)
+  }
+
+  @Test
+  fun `test random changes keep the index up to date`() {
+    val random = Random(42)
+    val pieces = listOf("", "a", "b.", " ", "\n", "\n\n", " \n", "x\ny", "?\n\t\n")
+    var text = "first.\n\nsecond line\n  \nthird"
+    var stamp = 0L
+    val index = indexOf(text)
+
+    repeat(2_000) {
+      // Several changes between updates, as for a command that changes the document more than once
+      repeat(random.nextInt(1, 4)) {
+        val offset = random.nextInt(text.length + 1)
+        val oldLength = random.nextInt(minOf(text.length - offset, 6) + 1)
+        val replacement = pieces[random.nextInt(pieces.size)]
+        text = text.substring(0, offset) + replacement + text.substring(offset + oldLength)
+        index.documentChanged(offset, oldLength, replacement.length, stamp, stamp + 1)
+        stamp++
+      }
+      index.update(text, stamp)
+      assertSameIndex(indexOf(text), index)
+    }
+  }
+
+  private fun assertSameIndex(expected: LineMetadataIndex, actual: LineMetadataIndex) {
+    assertEquals(expected.size, actual.size)
+    for (line in 0 until expected.size) {
+      assertEquals(expected.getLineStartOffset(line), actual.getLineStartOffset(line))
+      assertEquals(expected.isLineEmpty(line, false), actual.isLineEmpty(line, false))
+      assertEquals(expected.isLineEmpty(line, true), actual.isLineEmpty(line, true))
+      assertEquals(expected.hasSentenceEndChars(line), actual.hasSentenceEndChars(line))
+    }
+  }
+}
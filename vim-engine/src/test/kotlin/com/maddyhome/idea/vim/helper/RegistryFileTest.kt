@@ -0,0 +1,42 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.helper
+
+import com.maddyhome.idea.vim.vimscript.model.commands.EngineExCommandProvider
+import com.maddyhome.idea.vim.vimscript.model.functions.EngineFunctionProvider
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class RegistryFileTest {
+  @Test
+  fun `test read tab-separated entries`() {
+    val text = "com.example.First\tNX\tgg\t<C-\\><C-N>\ncom.example.Second\tO\ta\"\n"
+    assertEquals(
+      listOf(listOf("com.example.First", "NX", "gg", "<C-\\><C-N>"), listOf("com.example.Second", "O", "a\"")),
+      readRegistryFile(text.byteInputStream()),
+    )
+  }
+
+  @Test
+  fun `test empty registry`() {
+    assertEquals(emptyList(), readRegistryFile("".byteInputStream()))
+  }
+
+  @Test
+  fun `test engine registries are loaded`() {
+    val exCommands = EngineExCommandProvider.getCommands()
+    assertEquals(
+      "com.maddyhome.idea.vim.vimscript.model.commands.SubstituteCommand",
+      exCommands["s[ubstitute]"]?.getKClass()?.qualifiedName,
+    )
+
+    val functions = EngineFunctionProvider.getFunctions()
+    assertTrue(functions.any { it.name == "abs" })
+  }
+}
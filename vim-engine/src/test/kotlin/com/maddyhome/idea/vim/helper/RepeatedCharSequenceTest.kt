@@ -0,0 +1,55 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.helper
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.test.assertEquals
+
+class RepeatedCharSequenceTest {
+  @Test
+  fun `test characters match repeated string`() {
+    val sequence = RepeatedCharSequence("abc", 4)
+    val expected = "abc".repeat(4)
+    assertEquals(expected.length, sequence.length)
+    for (i in expected.indices) {
+      assertEquals(expected[i], sequence[i])
+    }
+    assertEquals(expected, sequence.toString())
+  }
+
+  @Test
+  fun `test sub sequences across repetitions`() {
+    val sequence = RepeatedCharSequence("abc", 4)
+    val expected = "abc".repeat(4)
+    for (start in 0..expected.length) {
+      for (end in start..expected.length) {
+        assertEquals(expected.substring(start, end), sequence.subSequence(start, end).toString())
+      }
+    }
+  }
+
+  @Test
+  fun `test zero count is empty`() {
+    val sequence = RepeatedCharSequence("abc", 0)
+    assertEquals(0, sequence.length)
+    assertEquals("", sequence.toString())
+  }
+
+  @Test
+  fun `test index out of bounds`() {
+    val sequence = RepeatedCharSequence("abc", 2)
+    assertThrows<IndexOutOfBoundsException> { sequence[6] }
+    assertThrows<IndexOutOfBoundsException> { sequence.subSequence(2, 7) }
+  }
+
+  @Test
+  fun `test overflowing length is rejected`() {
+    assertThrows<ArithmeticException> { RepeatedCharSequence("abc", Int.MAX_VALUE) }
+  }
+}
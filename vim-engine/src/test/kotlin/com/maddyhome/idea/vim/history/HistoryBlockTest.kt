@@ -0,0 +1,92 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.history
+
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class HistoryBlockTest {
+  private fun block(maxSize: Int, vararg entries: String) =
+    HistoryBlock { maxSize }.apply { entries.forEach { addEntry(it) } }
+
+  private fun HistoryBlock.texts() = getEntries().map { it.entry }
+
+  @Test
+  fun `test duplicate entry becomes newest with a new number`() {
+    val block = block(10, "one", "two", "one")
+    assertEquals(listOf("two", "one"), block.texts())
+    assertEquals(listOf(2, 3), block.getEntries().map { it.number })
+  }
+
+  @Test
+  fun `test oldest entries are dropped when limit shrinks`() {
+    var maxSize = 10
+    val block = HistoryBlock { maxSize }
+    listOf("a", "b", "c", "d").forEach { block.addEntry(it) }
+    maxSize = 2
+    block.addEntry("e")
+    assertEquals(listOf("d", "e"), block.texts())
+
+    // A dropped entry is no longer used to deduplicate
+    block.addEntry("a")
+    assertEquals(listOf("e", "a"), block.texts())
+  }
+
+  @Test
+  fun `test navigation with prefix filter`() {
+    val block = block(10, "set nu", "echo 1", "set list", "edit foo", "set hls")
+    assertEquals("set hls", block.selectOlderEntry("set")?.entry)
+    assertEquals("set list", block.selectOlderEntry("set")?.entry)
+    assertEquals("set nu", block.selectOlderEntry("set")?.entry)
+    assertNull(block.selectOlderEntry("set"))
+    assertEquals("set nu", block.currentEntry?.entry)
+
+    assertEquals("set list", block.selectNewerEntry("set")?.entry)
+    assertEquals("set hls", block.selectNewerEntry("set")?.entry)
+    assertNull(block.selectNewerEntry("set"))
+    assertNull(block.currentEntry)
+  }
+
+  @Test
+  fun `test filter changed while navigating continues from current entry`() {
+    val block = block(10, "echo 1", "edit foo", "set nu", "echo 2")
+    assertEquals("set nu", block.selectOlderEntry("set")?.entry)
+    assertEquals("edit foo", block.selectOlderEntry("e")?.entry)
+    assertEquals("echo 1", block.selectOlderEntry(null)?.entry)
+  }
+
+  @Test
+  fun `test adding an entry resets navigation and filter`() {
+    val block = block(10, "set nu", "echo 1")
+    assertEquals("set nu", block.selectOlderEntry("set")?.entry)
+    block.addEntry("set list")
+    assertNull(block.currentEntry)
+    assertEquals("set list", block.selectOlderEntry("set")?.entry)
+  }
+
+  @Test
+  fun `test entries sliced by number`() {
+    val block = block(10, "a", "b", "c", "d", "e")
+    block.removeEntryByNumber(3)
+    assertEquals(listOf("b", "d"), block.getEntries(2, 4).map { it.entry })
+    assertEquals(listOf("d", "e"), block.getEntries(3, Int.MAX_VALUE).map { it.entry })
+    assertEquals(emptyList(), block.getEntries(4, 2))
+  }
+
+  @Test
+  fun `test remove entries matching predicate`() {
+    val block = block(10, "set nu", "echo 1", "set list")
+    assertTrue(block.removeEntries { it.entry.startsWith("set") })
+    assertEquals(listOf("echo 1"), block.texts())
+    assertFalse(block.removeEntries { it.entry.startsWith("set") })
+    assertNull(block.selectOlderEntry("set"))
+  }
+}
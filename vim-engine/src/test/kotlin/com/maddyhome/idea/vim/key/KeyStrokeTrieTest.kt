@@ -0,0 +1,120 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.key
+
+import org.junit.jupiter.api.Test
+import java.awt.event.InputEvent
+import java.awt.event.KeyEvent
+import javax.swing.KeyStroke
+import kotlin.random.Random
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class KeyStrokeTrieTest {
+  private fun keys(s: String) = s.map { KeyStroke.getKeyStroke(it) }
+
+  @Test
+  fun `test add and get data`() {
+    val trie = KeyStrokeTrie<String>("test")
+    trie.add(keys("gg"), "gg")
+    trie.add(keys("gJ"), "gJ")
+    trie.add(keys("g"), "g")
+
+    assertEquals("gg", trie.getData(keys("gg")))
+    assertEquals("gJ", trie.getData(keys("gJ")))
+    assertEquals("g", trie.getData(keys("g")))
+    assertNull(trie.getData(keys("gx")))
+    assertTrue(trie.isPrefix(keys("g")))
+    assertFalse(trie.isPrefix(keys("gg")))
+  }
+
+  @Test
+  fun `test keystrokes with the same char but different modifiers are different keys`() {
+    val trie = KeyStrokeTrie<String>("test")
+    val ctrlA = KeyStroke.getKeyStroke(KeyEvent.VK_A, InputEvent.CTRL_DOWN_MASK)
+    val ctrlShiftA = KeyStroke.getKeyStroke(KeyEvent.VK_A, InputEvent.CTRL_DOWN_MASK or InputEvent.SHIFT_DOWN_MASK)
+    val ctrlAReleased = KeyStroke.getKeyStroke(KeyEvent.VK_A, InputEvent.CTRL_DOWN_MASK, true)
+    trie.add(listOf(ctrlA), "ctrl-a")
+    trie.add(listOf(ctrlShiftA), "ctrl-shift-a")
+
+    assertEquals("ctrl-a", trie.getData(listOf(ctrlA)))
+    assertEquals("ctrl-shift-a", trie.getData(listOf(ctrlShiftA)))
+    assertNull(trie.getData(listOf(ctrlAReleased)))
+    assertNull(trie.getData(keys("a")))
+  }
+
+  @Test
+  fun `test entries are returned in insertion order`() {
+    val trie = KeyStrokeTrie<String>("test")
+    val sequences = listOf("z", "a", "m", "ab", "b")
+    sequences.forEach { trie.add(keys(it), it) }
+
+    assertEquals(listOf("z", "a", "ab", "m", "b"), trie.getEntries().map { it.data }.toList())
+  }
+
+  @Test
+  fun `test remove keeps child sequences`() {
+    val trie = KeyStrokeTrie<String>("test")
+    trie.add(keys("ab"), "ab")
+    trie.add(keys("abc"), "abc")
+    trie.add(keys("b"), "b")
+
+    trie.remove(keys("ab"))
+    assertNull(trie.getData(keys("ab")))
+    assertEquals("abc", trie.getData(keys("abc")))
+
+    trie.remove(keys("abc"))
+    assertNull(trie.getTrieNode(keys("a")))
+    assertEquals("b", trie.getData(keys("b")))
+  }
+
+  @Test
+  fun `test matches a map of sequences after random changes`() {
+    val random = Random(42)
+    val trie = KeyStrokeTrie<String>("test")
+    val expected = mutableMapOf<String, String>()
+    repeat(5000) {
+      val sequence = String(CharArray(random.nextInt(1, 4)) { "abcdefgh"[random.nextInt(8)] })
+      if (random.nextInt(3) == 0) {
+        trie.remove(keys(sequence))
+        expected.remove(sequence)
+      } else {
+        trie.add(keys(sequence), sequence)
+        expected[sequence] = sequence
+      }
+    }
+
+    assertEquals(expected.keys, trie.getEntries().map { it.data!! }.toSet())
+    expected.keys.forEach { assertEquals(it, trie.getData(keys(it))) }
+  }
+
+  @Test
+  fun `test cursor walks one key at a time`() {
+    val trie = KeyStrokeTrie<String>("test")
+    trie.add(keys("abc"), "abc")
+    val cursor = KeyStrokeTrieCursor<String>()
+    val pending = mutableListOf<KeyStroke>()
+
+    pending.addAll(keys("ab"))
+    assertTrue(cursor.getNode(trie, pending)!!.hasChildren)
+    pending.addAll(keys("c"))
+    assertEquals("abc", cursor.getNode(trie, pending)!!.data)
+
+    // Modifying the trie invalidates the cursor
+    trie.remove(keys("abc"))
+    assertNull(cursor.getNode(trie, pending))
+
+    pending.clear()
+    cursor.reset()
+    trie.add(keys("x"), "x")
+    pending.addAll(keys("x"))
+    assertEquals("x", cursor.getNode(trie, pending)!!.data)
+  }
+}
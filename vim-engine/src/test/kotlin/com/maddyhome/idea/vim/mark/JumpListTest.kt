@@ -0,0 +1,64 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.mark
+
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class JumpListTest {
+  private fun jump(line: Int, col: Int = 0, file: String = "/a.txt") = Jump(line, col, file, "file")
+
+  @Test
+  fun `test jump on same line replaces existing jump`() {
+    val jumps = JumpList()
+    jumps.addJump(jump(1), 100)
+    jumps.addJump(jump(2), 100)
+    jumps.addJump(jump(1, col = 5), 100)
+    assertEquals(listOf(jump(2), jump(1, col = 5)), jumps)
+  }
+
+  @Test
+  fun `test same line in different files is not replaced`() {
+    val jumps = JumpList()
+    jumps.addJump(jump(1), 100)
+    jumps.addJump(jump(1, file = "/b.txt"), 100)
+    assertEquals(2, jumps.size)
+  }
+
+  @Test
+  fun `test oldest jumps are dropped beyond max size`() {
+    val jumps = JumpList()
+    (1..5).forEach { jumps.addJump(jump(it), 3) }
+    assertEquals(listOf(3, 4, 5), jumps.map { it.line })
+  }
+
+  @Test
+  fun `test remove and drop last jump`() {
+    val jumps = JumpList(listOf(jump(1), jump(2), jump(3)))
+    assertFalse(jumps.removeJump(jump(2, col = 1)))
+    assertTrue(jumps.removeJump(jump(2)))
+    jumps.dropLastJump()
+    assertEquals(listOf(jump(1)), jumps)
+  }
+
+  @Test
+  fun `test copies are independent`() {
+    val original = JumpList(listOf(jump(1), jump(2)))
+    val copy = original.copy()
+    val copyOfCopy = copy.copy()
+
+    copy.addJump(jump(3), 100)
+    original.dropLastJump()
+
+    assertEquals(listOf(jump(1)), original)
+    assertEquals(listOf(jump(1), jump(2), jump(3)), copy)
+    assertEquals(listOf(jump(1), jump(2)), copyOfCopy)
+  }
+}
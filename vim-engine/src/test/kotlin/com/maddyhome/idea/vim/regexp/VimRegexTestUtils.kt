@@ -39,6 +39,7 @@ internal object VimRegexTestUtils {
     val editorMock = Mockito.mock<VimEditor>()
     mockEditorText(editorMock, cleanText)
     mockEditorOffsetToBufferPosition(editorMock, lines)
+    mockEditorOffsetToBufferLine(editorMock)
     mockEditorBufferPositionToOffset(editorMock, lines)
     mockEditorLineStartOffset(editorMock)
     mockEditorLineEndOffset(editorMock, lines)
@@ -96,6 +97,7 @@ internal object VimRegexTestUtils {
     val editorMock = Mockito.mock<VimEditor>()
     mockEditorText(editorMock, cleanText)
     mockEditorOffsetToBufferPosition(editorMock, lines)
+    mockEditorOffsetToBufferLine(editorMock)
     mockEditorBufferPositionToOffset(editorMock, lines)
     mockEditorLineStartOffset(editorMock)
     mockEditorLineEndOffset(editorMock, lines)
@@ -216,6 +218,15 @@ internal object VimRegexTestUtils {
     }
   }
 
+  private fun mockEditorOffsetToBufferLine(editor: VimEditor) {
+    whenever(editor.offsetToBufferLine(anyInt())).thenAnswer { invocation ->
+      editor.offsetToBufferPosition(invocation.arguments[0] as Int).line
+    }
+    whenever(editor.offsetToLineStartOffset(anyInt())).thenAnswer { invocation ->
+      editor.getLineStartOffset(editor.offsetToBufferLine(invocation.arguments[0] as Int))
+    }
+  }
+
   private fun mockEditorBufferPositionToOffset(editor: VimEditor, lines: List<String>) {
     whenever(editor.bufferPositionToOffset(any(BufferPosition::class.java))).thenAnswer { invocation ->
       val position = invocation.arguments[0] as BufferPosition
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.register
+
+import com.maddyhome.idea.vim.common.VimCopiedText
+import com.maddyhome.idea.vim.state.mode.SelectionType
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class RegisterStoreTest {
+  private class CopiedText(override val text: String) : VimCopiedText {
+    override fun updateText(newText: String): VimCopiedText = CopiedText(newText)
+  }
+
+  private fun register(name: Char, text: String) =
+    Register(name, emptyList(), SelectionType.CHARACTER_WISE, CopiedText(text))
+
+  @Test
+  fun `test register is loaded on first read`() {
+    val store = RegisterStore()
+    var loads = 0
+    val a = register('a', "foo")
+    store.setLoader('a') { loads++; a }
+
+    assertEquals(setOf('a'), store.names)
+    assertFalse(store.isLoaded('a'))
+    assertEquals(0, loads)
+
+    assertSame(a, store['a'])
+    assertSame(a, store['a'])
+    assertTrue(store.isLoaded('a'))
+    assertEquals(1, loads)
+  }
+
+  @Test
+  fun `test setting a register replaces its loader`() {
+    val store = RegisterStore()
+    store.setLoader('a') { throw AssertionError("Should not be loaded") }
+    val a = register('a', "bar")
+    store['a'] = a
+    assertNull(store.getLoader('a'))
+    assertSame(a, store['a'])
+    assertEquals(listOf(a), store.values.toList())
+  }
+
+  @Test
+  fun `test values load all registers`() {
+    val store = RegisterStore()
+    store['a'] = register('a', "foo")
+    store.setLoader('b') { register('b', "bar") }
+    store.setLoader('c') { null }
+
+    assertEquals(setOf("foo", "bar"), store.values.map { it.text }.toSet())
+    assertEquals(setOf('a', 'b'), store.names)
+    assertNull(store['c'])
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.vimscript.model.commands
+
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+
+class ExCommandTreeTest {
+  private val classLoader = javaClass.classLoader
+  private val substitute = LazyExCommandInstance("Substitute", classLoader)
+  private val set = LazyExCommandInstance("Set", classLoader)
+  private val setGlobal = LazyExCommandInstance("SetGlobal", classLoader)
+
+  private val tree = ExCommandTree().apply {
+    addCommand("s[ubstitute]", substitute)
+    addCommand("se[t]", set)
+    addCommand("setg[lobal]", setGlobal)
+  }
+
+  @Test
+  fun `test abbreviations resolve to full command`() {
+    assertEquals("substitute", tree.getFullCommandName("s"))
+    assertEquals("substitute", tree.getFullCommandName("su"))
+    assertEquals("substitute", tree.getFullCommandName("substitute"))
+    assertEquals("set", tree.getFullCommandName("se"))
+    assertEquals("set", tree.getFullCommandName("set"))
+    assertEquals("setglobal", tree.getFullCommandName("setg"))
+    assertSame(setGlobal, tree.getCommand("setgl"))
+    assertSame(substitute, tree.getCommand("sub"))
+  }
+
+  @Test
+  fun `test text that is not an abbreviation is not resolved`() {
+    assertNull(tree.getCommand("sets"))
+    assertNull(tree.getCommand("substitutes"))
+    assertNull(tree.getCommand("x"))
+    assertNull(tree.getCommand(""))
+  }
+
+  @Test
+  fun `test later command overrides shared abbreviation`() {
+    tree.addCommand("s[ort]", set)
+    assertEquals("sort", tree.getFullCommandName("s"))
+    assertEquals("substitute", tree.getFullCommandName("su"))
+    assertEquals("sort", tree.getFullCommandName("so"))
+  }
+
+  @Test
+  fun `test full commands by prefix are sorted`() {
+    tree.addCommand("setl[ocal]", set)
+    tree.addCommand("seth[andler]", set)
+    assertEquals(listOf("set", "setglobal", "sethandler", "setlocal"), tree.findFullCommandsByPrefix("set"))
+    assertEquals(listOf("set", "setglobal", "sethandler", "setlocal", "substitute"), tree.findFullCommandsByPrefix("s"))
+    assertEquals(emptyList(), tree.findFullCommandsByPrefix("x"))
+  }
+
+  @Test
+  fun `test multiple commands in one pattern`() {
+    tree.addCommand("d[elete],dl", substitute)
+    assertEquals("delete", tree.getFullCommandName("d"))
+    assertEquals("dl", tree.getFullCommandName("dl"))
+  }
+}
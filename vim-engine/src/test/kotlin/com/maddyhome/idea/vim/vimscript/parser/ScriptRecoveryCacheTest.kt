@@ -0,0 +1,44 @@
+/*
+ * Copyright 2003-2026 The IdeaVim authors
+ *
+ * Use of this source code is governed by an MIT-style
+ * license that can be found in the LICENSE.txt file or at
+ * https://opensource.org/licenses/MIT.
+ */
+package com.maddyhome.idea.vim.vimscript.parser
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import kotlin.io.path.listDirectoryEntries
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+class ScriptRecoveryCacheTest {
+  @TempDir
+  lateinit var directory: Path
+
+  private val recovery = ScriptRecovery("set rnu\n", listOf(8 to 12), listOf("E492: Not an editor command: foo"))
+
+  @Test
+  fun `test stored recovery is returned for the same script`() {
+    val cache = ScriptRecoveryCache(directory, "1.0")
+    cache.put("set rnu\nfoo bar baz\n", recovery)
+    assertEquals(recovery, cache.get("set rnu\nfoo bar baz\n"))
+    assertEquals(recovery, ScriptRecoveryCache(directory, "1.0").get("set rnu\nfoo bar baz\n"))
+  }
+
+  @Test
+  fun `test recovery is not returned for a different script or version`() {
+    ScriptRecoveryCache(directory, "1.0").put("set rnu\nfoo bar baz\n", recovery)
+    assertNull(ScriptRecoveryCache(directory, "1.0").get("set rnu\nfoo bar\n"))
+    assertNull(ScriptRecoveryCache(directory, "1.1").get("set rnu\nfoo bar baz\n"))
+  }
+
+  @Test
+  fun `test number of entries is limited`() {
+    val cache = ScriptRecoveryCache(directory, "1.0")
+    repeat(20) { cache.put("foo $it\n", recovery) }
+    assertEquals(8, directory.listDirectoryEntries().size)
+  }
+}